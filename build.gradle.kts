@@ -100,6 +100,20 @@ tasks.javadoc {
     }
 }
 
+/* ******************** test ******************** */
+
+@Suppress("UnstableApiUsage")
+testing {
+    suites {
+        "test"(JvmTestSuite::class) {
+            useJUnitJupiter(libs.versions.junit.jupiter)
+            dependencies {
+                implementation(libs.mockito)
+            }
+        }
+    }
+}
+
 /* ******************** publishing ******************** */
 
 publishing {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.builders;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.services.EnrichmentCache;
+import com.hivemq.extensions.amazon.kinesis.api.services.EnrichmentCacheLoader;
+
+import java.time.Duration;
+
+/**
+ * The {@link EnrichmentCacheBuilder} enables the creation of {@link EnrichmentCache}s via its fluent API.
+ * <p>
+ * Make sure that at least {@code name} and {@code maximumSize} is set before calling
+ * {@link EnrichmentCacheBuilder#build(EnrichmentCacheLoader)}.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface EnrichmentCacheBuilder {
+
+    /**
+     * Set the {@code name} of the cache. It is used in the names of the cache metrics. This is required to
+     * successfully build an {@link EnrichmentCache}.
+     * <p>
+     * The {@code name} is scoped to the route of the transformer and does not need to be unique. Caches with the same
+     * name in the same route, for example of the same transformer class used twice in a transformer chain or of a
+     * transformer that is initialized again after a configuration reload, have their own values but share their
+     * counters.
+     *
+     * @param name The name of the cache.
+     * @return This builder.
+     * @throws NullPointerException     If {@code name} is null.
+     * @throws IllegalArgumentException If {@code name} is empty.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder name(@NotNull String name);
+
+    /**
+     * Set the {@code maximumSize} of the cache. If the cache exceeds this number of values, the least recently used
+     * values are evicted. This is required to successfully build an {@link EnrichmentCache}.
+     *
+     * @param maximumSize The maximum number of values.
+     * @return This builder.
+     * @throws IllegalArgumentException If {@code maximumSize} is not positive.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder maximumSize(long maximumSize);
+
+    /**
+     * Set the {@code expireAfterWrite} duration of the cache. Values are removed when this duration has passed since
+     * they were loaded. Values do not expire by default.
+     *
+     * @param expireAfterWrite The duration after which a value expires.
+     * @return This builder.
+     * @throws NullPointerException     If {@code expireAfterWrite} is null.
+     * @throws IllegalArgumentException If {@code expireAfterWrite} is not positive.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder expireAfterWrite(@NotNull Duration expireAfterWrite);
+
+    /**
+     * Set the {@code refreshAfterWrite} duration of the cache. A value that is read after this duration has passed
+     * since it was loaded is reloaded in the background, while the current value is returned. Values are not
+     * refreshed by default.
+     * <p>
+     * The {@code refreshAfterWrite} duration should be shorter than the {@code expireAfterWrite} duration, so that
+     * frequently read values are refreshed before they expire.
+     *
+     * @param refreshAfterWrite The duration after which a value is refreshed.
+     * @return This builder.
+     * @throws NullPointerException     If {@code refreshAfterWrite} is null.
+     * @throws IllegalArgumentException If {@code refreshAfterWrite} is not positive.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder refreshAfterWrite(@NotNull Duration refreshAfterWrite);
+
+    /**
+     * Create a new {@link EnrichmentCache} from the current state of this builder and register its metrics.
+     *
+     * @param loader The {@link EnrichmentCacheLoader} of the cache.
+     * @param <K>    The type of the keys.
+     * @param <V>    The type of the values.
+     * @return A new {@link EnrichmentCache}.
+     * @throws NullPointerException  If {@code loader} is null.
+     * @throws IllegalStateException If {@code name} or {@code maximumSize} was not set.
+     * @since 4.54.0
+     */
+    <K, V> @NotNull EnrichmentCache<K, V> build(@NotNull EnrichmentCacheLoader<K, V> loader);
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.builders;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@link KinesisJsonWriter} serializes JSON directly into a pooled, growable direct {@link ByteBuffer} via its
+ * fluent API. The result is passed to {@link OutboundKinesisRecordBuilder#data(KinesisJsonWriter)} without creating
+ * intermediate {@link String}s or byte arrays.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * final KinesisJsonWriter writer = mqttToKinesisOutput.newKinesisJsonWriter()
+ *         .beginObject()
+ *         .field("topic", publishPacket.getTopic())
+ *         .timestampField("timestamp", publishPacket.getTimestamp())
+ *         .utf8Field("payload", publishPacket.getPayload().orElse(ByteBuffer.allocate(0)))
+ *         .endObject();
+ * final OutboundKinesisRecord record = mqttToKinesisOutput.newOutboundKinesisRecordBuilder()
+ *         .streamName("my-stream")
+ *         .randomPartitionKey()
+ *         .data(writer)
+ *         .build();
+ * }</pre>
+ * <p>
+ * All strings are UTF-8 encoded and escaped according to RFC 8259. The writer is not thread-safe. Every write method
+ * throws an {@link IllegalArgumentException} if the written data would exceed the max size of an Amazon Kinesis
+ * record of 1,048,576 bytes (1MB), like the {@code data} methods of {@link OutboundKinesisRecordBuilder}. It throws an
+ * {@link IllegalStateException} if the written value is not allowed at the current position of the JSON document.
+ * <p>
+ * The buffer of the writer is handed over to a builder when the writer is passed to it, see
+ * {@link OutboundKinesisRecordBuilder#data(KinesisJsonWriter)}. Otherwise, it is returned to the pool when
+ * {@link #close()} is called.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface KinesisJsonWriter extends AutoCloseable {
+
+    /**
+     * Writes the start of a JSON object.
+     *
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter beginObject();
+
+    /**
+     * Writes the end of the current JSON object.
+     *
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter endObject();
+
+    /**
+     * Writes the start of a JSON array.
+     *
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter beginArray();
+
+    /**
+     * Writes the end of the current JSON array.
+     *
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter endArray();
+
+    /**
+     * Writes the name of the next field of the current JSON object.
+     *
+     * @param name The name of the field.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter name(@NotNull String name);
+
+    /**
+     * Writes a JSON string value.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws NullPointerException If {@code value} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter value(@NotNull String value);
+
+    /**
+     * Writes a JSON number value.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter value(long value);
+
+    /**
+     * Writes a JSON number value, for example a sensor reading. The value is written in the shortest form that is
+     * parsed back to the same {@code double}.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @throws IllegalArgumentException If {@code value} is NaN or infinite, as JSON does not allow them.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter value(double value);
+
+    /**
+     * Writes a JSON boolean value.
+     *
+     * @param value The value.
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter value(boolean value);
+
+    /**
+     * Writes a JSON {@code null} value.
+     *
+     * @return This writer.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter nullValue();
+
+    /**
+     * Writes a field with a JSON string value, for example the topic of a PUBLISH.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} or {@code value} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter field(@NotNull String name, @NotNull String value);
+
+    /**
+     * Writes a field with a JSON number value.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter field(@NotNull String name, long value);
+
+    /**
+     * Writes a field with a JSON number value, for example a sensor reading. The value is written in the shortest form
+     * that is parsed back to the same {@code double}.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     * @throws NullPointerException     If {@code name} is null.
+     * @throws IllegalArgumentException If {@code value} is NaN or infinite, as JSON does not allow them.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter field(@NotNull String name, double value);
+
+    /**
+     * Writes a field with a JSON boolean value.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter field(@NotNull String name, boolean value);
+
+    /**
+     * Writes a field with a timestamp as ISO-8601 JSON string value in UTC, for example
+     * {@code "2024-01-01T12:00:00.000Z"}.
+     *
+     * @param name                The name of the field.
+     * @param epochMilliTimestamp The timestamp in milliseconds since the epoch.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter timestampField(@NotNull String name, long epochMilliTimestamp);
+
+    /**
+     * Writes a field with the remaining bytes of the given {@link ByteBuffer} as JSON string value. The bytes are
+     * interpreted as UTF-8 and escaped while they are written, for example for a UTF-8 payload of a PUBLISH.
+     * <p>
+     * The position of the {@code value} is not changed.
+     *
+     * @param name  The name of the field.
+     * @param value The UTF-8 encoded value of the field.
+     * @return This writer.
+     * @throws NullPointerException     If {@code name} or {@code value} is null.
+     * @throws IllegalArgumentException If {@code value} is not valid UTF-8.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter utf8Field(@NotNull String name, @NotNull ByteBuffer value);
+
+    /**
+     * Writes a field with the remaining bytes of the given {@link ByteBuffer} as Base64 encoded JSON string value, for
+     * example for a binary payload of a PUBLISH.
+     * <p>
+     * The position of the {@code value} is not changed.
+     *
+     * @param name  The name of the field.
+     * @param value The value of the field.
+     * @return This writer.
+     * @throws NullPointerException If {@code name} or {@code value} is null.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter base64Field(@NotNull String name, @NotNull ByteBuffer value);
+
+    /**
+     * @return The number of bytes written so far.
+     * @since 4.54.0
+     */
+    int size();
+
+    /**
+     * Discards the written data and returns the buffer of this writer to the pool. The writer must not be used
+     * afterwards. Calling this method multiple times has no effect.
+     *
+     * @since 4.54.0
+     */
+    @Override
+    void close();
+}
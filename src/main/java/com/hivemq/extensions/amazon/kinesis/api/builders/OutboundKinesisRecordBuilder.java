@@ -18,6 +18,7 @@ package com.hivemq.extensions.amazon.kinesis.api.builders;
 
 import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
 import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.model.KinesisDeliveryClass;
 import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
 
 import java.math.BigInteger;
@@ -31,7 +32,7 @@ import java.nio.charset.Charset;
  * {@link OutboundKinesisRecordBuilder#build()}.
  * <p>
  * The internal state of this interface can only be changed via its methods. All arguments, that have mutable data
- * types, are deep copied before the setting method returns.
+ * types, are deep copied before the setting method returns, unless stated otherwise.
  *
  * @author Mario Schwede
  * @since 4.14.0
@@ -109,6 +110,45 @@ public interface OutboundKinesisRecordBuilder {
      */
     @NotNull OutboundKinesisRecordBuilder data(@NotNull String data, @NotNull Charset charset);
 
+    /**
+     * Set the {@code data} of the Amazon Kinesis record to the remaining bytes of the given {@link ByteBuffer} without
+     * copying them.
+     * <p>
+     * In contrast to {@link #data(ByteBuffer)}, the ownership of the {@code data} is handed over to this builder and
+     * to the records built from it. The content of the {@code data} must not be modified afterwards.
+     *
+     * @param data The value of the data.
+     * @return This builder.
+     * @throws NullPointerException     If {@code data} is null.
+     * @throws IllegalArgumentException If {@code data} exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordBuilder wrapData(@NotNull ByteBuffer data);
+
+    /**
+     * Set the {@code data} of the Amazon Kinesis record to the data written by the given {@link KinesisJsonWriter}.
+     * <p>
+     * The pooled buffer of the {@code writer} is handed over without copying it. The {@code writer} is closed and must
+     * not be used afterwards. The buffer is returned to the pool after the last use of the built records by the
+     * "HiveMQ Enterprise Extension for Amazon Kinesis", so the data of the records is only valid for the lifetime
+     * described in {@link OutboundKinesisRecord}.
+     * <p>
+     * The builder only holds the pooled buffer until the next call of {@link #build()}, which hands it over to the
+     * built records and unsets the {@code data}. Set new {@code data} before the builder is reused. If the
+     * {@code data} is replaced before {@link #build()} is called, or if no records are built until the current
+     * transformer call returns, the buffer is returned to the pool and the {@code data} is unset.
+     *
+     * @param writer The {@link KinesisJsonWriter} containing the data.
+     * @return This builder.
+     * @throws NullPointerException     If {@code writer} is null.
+     * @throws IllegalArgumentException If {@code writer} was not created by the "HiveMQ Enterprise Extension for
+     *                                  Amazon Kinesis".
+     * @throws IllegalStateException    If {@code writer} is already closed or the written JSON document is not
+     *                                  complete.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordBuilder data(@NotNull KinesisJsonWriter writer);
+
 
     /**
      * Set the {@code partitionKey} of the Amazon Kinesis record.
@@ -161,9 +201,24 @@ public interface OutboundKinesisRecordBuilder {
      */
     @NotNull OutboundKinesisRecordBuilder randomExplicitHashKey();
 
+    /**
+     * Set the {@code deliveryClass} of the Amazon Kinesis record. Defaults to {@link KinesisDeliveryClass#DEFAULT}.
+     * <p>
+     * Records with {@link KinesisDeliveryClass#LOW_LATENCY} are flushed to Amazon Kinesis immediately, while records
+     * with {@link KinesisDeliveryClass#HIGH_THROUGHPUT} are batched as aggressively as possible. The order in which
+     * the records of a stream are submitted is kept across delivery classes, see {@link KinesisDeliveryClass}.
+     *
+     * @param deliveryClass The {@link KinesisDeliveryClass}.
+     * @return This builder.
+     * @throws NullPointerException If {@code deliveryClass} is null.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordBuilder deliveryClass(@NotNull KinesisDeliveryClass deliveryClass);
+
     /**
      * Create a new {@link OutboundKinesisRecord} from the current state of this builder. The builder can be reused
-     * afterwards.
+     * afterwards. All settings are kept, except {@code data} that was set from a {@link KinesisJsonWriter}, see
+     * {@link #data(KinesisJsonWriter)}.
      *
      * @return A new {@link OutboundKinesisRecord} containing a snapshot of the current state of this builder.
      * @throws IllegalStateException If {@code streamName}, {@code data} or {@code partitionKey} was not set.
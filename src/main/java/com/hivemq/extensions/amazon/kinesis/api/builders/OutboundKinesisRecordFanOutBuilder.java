@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.builders;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.Immutable;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.model.KinesisDeliveryClass;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * The {@link OutboundKinesisRecordFanOutBuilder} enables the creation of multiple {@link OutboundKinesisRecord}s with
+ * the same {@code data} for different Amazon Kinesis streams and partition keys via its fluent API.
+ * <p>
+ * The {@code data} is copied at most once when it is set. All records built by this builder share the same immutable
+ * data, so replicating the data to N targets does not require N copies.
+ * <p>
+ * Make sure that {@code data} and at least one target is set before calling
+ * {@link OutboundKinesisRecordFanOutBuilder#build()}.
+ * <p>
+ * The internal state of this interface can only be changed via its methods. All arguments, that have mutable data
+ * types, are deep copied before the setting method returns, unless stated otherwise.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface OutboundKinesisRecordFanOutBuilder {
+
+    /**
+     * Set the {@code data} shared by all Amazon Kinesis records.
+     *
+     * @param data The value of the data.
+     * @return This builder.
+     * @throws NullPointerException     If {@code data} is null.
+     * @throws IllegalArgumentException If {@code data} exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder data(@NotNull ByteBuffer data);
+
+    /**
+     * Set the {@code data} shared by all Amazon Kinesis records.
+     *
+     * @param data The value of the data.
+     * @return This builder.
+     * @throws NullPointerException     If {@code data} is null.
+     * @throws IllegalArgumentException If {@code data} exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder data(byte @NotNull [] data);
+
+    /**
+     * Set the {@code data} shared by all Amazon Kinesis records.
+     *
+     * @param data The value of the data {@link java.nio.charset.StandardCharsets#UTF_8} is used for encoding.
+     * @return This builder.
+     * @throws NullPointerException     If {@code data} is null.
+     * @throws IllegalArgumentException If {@code data} exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder data(@NotNull String data);
+
+    /**
+     * Set the {@code data} shared by all Amazon Kinesis records.
+     *
+     * @param data    The value of the data.
+     * @param charset The {@link Charset} used for encoding.
+     * @return This builder.
+     * @throws NullPointerException     If {@code data} or {@code charset} is null.
+     * @throws IllegalArgumentException If {@code data} exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder data(@NotNull String data, @NotNull Charset charset);
+
+    /**
+     * Set the {@code data} shared by all Amazon Kinesis records to the data written by the given
+     * {@link KinesisJsonWriter}.
+     * <p>
+     * The pooled buffer of the {@code writer} is handed over without copying it. The {@code writer} is closed and must
+     * not be used afterwards. The buffer is returned to the pool after the last use of the built records by the
+     * "HiveMQ Enterprise Extension for Amazon Kinesis", so the data of the records is only valid for the lifetime
+     * described in {@link OutboundKinesisRecord}.
+     * <p>
+     * The builder only holds the pooled buffer until the next call of {@link #build()}, which hands it over to the
+     * built records and unsets the {@code data}. Set new {@code data} before the builder is reused. If the
+     * {@code data} is replaced before {@link #build()} is called, or if no records are built until the current
+     * transformer call returns, the buffer is returned to the pool and the {@code data} is unset.
+     *
+     * @param writer The {@link KinesisJsonWriter} containing the data.
+     * @return This builder.
+     * @throws NullPointerException     If {@code writer} is null.
+     * @throws IllegalArgumentException If {@code writer} was not created by the "HiveMQ Enterprise Extension for
+     *                                  Amazon Kinesis".
+     * @throws IllegalStateException    If {@code writer} is already closed or the written JSON document is not
+     *                                  complete.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder data(@NotNull KinesisJsonWriter writer);
+
+    /**
+     * Add a target for which an Amazon Kinesis record is built.
+     * <p>
+     * The {@code streamName} and the {@code partitionKey} must conform to the guidelines of
+     * {@link OutboundKinesisRecordBuilder#streamName(String)} and
+     * {@link OutboundKinesisRecordBuilder#partitionKey(String)}.
+     *
+     * @param streamName   The name of the Amazon Kinesis stream.
+     * @param partitionKey The partitionKey.
+     * @return This builder.
+     * @throws NullPointerException     If {@code streamName} or {@code partitionKey} is null.
+     * @throws IllegalArgumentException If {@code streamName} or {@code partitionKey} is not conform with the
+     *                                  guidelines.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder target(@NotNull String streamName, @NotNull String partitionKey);
+
+    /**
+     * Add a target for which an Amazon Kinesis record is built.
+     * <p>
+     * The {@code streamName}, the {@code partitionKey} and the {@code explicitHashKey} must conform to the guidelines
+     * of {@link OutboundKinesisRecordBuilder#streamName(String)},
+     * {@link OutboundKinesisRecordBuilder#partitionKey(String)} and
+     * {@link OutboundKinesisRecordBuilder#explicitHashKey(BigInteger)}.
+     *
+     * @param streamName      The name of the Amazon Kinesis stream.
+     * @param partitionKey    The partitionKey.
+     * @param explicitHashKey The explicitHashKey, that overrides the {@code partitionKey} shard assignment.
+     * @return This builder.
+     * @throws NullPointerException     If {@code streamName}, {@code partitionKey} or {@code explicitHashKey} is null.
+     * @throws IllegalArgumentException If {@code streamName}, {@code partitionKey} or {@code explicitHashKey} is not
+     *                                  conform with the guidelines.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder target(
+            @NotNull String streamName, @NotNull String partitionKey, @NotNull BigInteger explicitHashKey);
+
+    /**
+     * Add a target with a random {@code partitionKey} for which an Amazon Kinesis record is built.
+     * <p>
+     * The {@code streamName} must conform to the guidelines of {@link OutboundKinesisRecordBuilder#streamName(String)}.
+     *
+     * @param streamName The name of the Amazon Kinesis stream.
+     * @return This builder.
+     * @throws NullPointerException     If {@code streamName} is null.
+     * @throws IllegalArgumentException If {@code streamName} is not conform with the guidelines.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder targetWithRandomPartitionKey(@NotNull String streamName);
+
+    /**
+     * Remove all targets added to this builder. The {@code data} and the other settings are kept.
+     *
+     * @return This builder.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder clearTargets();
+
+    /**
+     * Set the {@code deliveryClass} of all Amazon Kinesis records. Defaults to {@link KinesisDeliveryClass#DEFAULT}.
+     * <p>
+     * Records with {@link KinesisDeliveryClass#LOW_LATENCY} are flushed to Amazon Kinesis immediately, while records
+     * with {@link KinesisDeliveryClass#HIGH_THROUGHPUT} are batched as aggressively as possible. The order in which
+     * the records of a stream are submitted is kept across delivery classes, see {@link KinesisDeliveryClass}.
+     *
+     * @param deliveryClass The {@link KinesisDeliveryClass}.
+     * @return This builder.
+     * @throws NullPointerException If {@code deliveryClass} is null.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder deliveryClass(@NotNull KinesisDeliveryClass deliveryClass);
+
+    /**
+     * Create one new {@link OutboundKinesisRecord} per target from the current state of this builder. The records are
+     * returned in the order the targets were added.
+     * <p>
+     * The builder can be reused afterwards. Its state, including the {@code data} and all targets, is kept, except
+     * {@code data} that was set from a {@link KinesisJsonWriter}, see {@link #data(KinesisJsonWriter)}. To build
+     * the records of the next payload for the same targets, only set the new {@code data}. To build records for
+     * different targets, call {@link #clearTargets()} first, otherwise the new targets are added to the existing ones.
+     * A random partition key of a target added via {@link #targetWithRandomPartitionKey(String)} is chosen anew on
+     * every call of this method.
+     *
+     * @return A list of new {@link OutboundKinesisRecord}s sharing the same data.
+     * @throws IllegalStateException If {@code data} or no target was set.
+     * @since 4.54.0
+     */
+    @Immutable @NotNull List<@NotNull OutboundKinesisRecord> build();
+}
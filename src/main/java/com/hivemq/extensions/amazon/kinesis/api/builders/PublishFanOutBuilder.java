@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.builders;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.Immutable;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.services.builder.PublishBuilder;
+import com.hivemq.extension.sdk.api.services.publish.Publish;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The {@link PublishFanOutBuilder} enables the creation of multiple {@link Publish}es with the same {@code payload}
+ * for different topics via its fluent API.
+ * <p>
+ * All publishes built by this builder share the same immutable payload buffer, so publishing one payload to N topics
+ * does not require N copies.
+ * <p>
+ * Make sure that {@code payload} and at least one topic is set before calling {@link PublishFanOutBuilder#build()}.
+ * <p>
+ * The internal state of this interface can only be changed via its methods. All arguments, that have mutable data
+ * types, are deep copied before the setting method returns, unless stated otherwise.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface PublishFanOutBuilder {
+
+    /**
+     * Set the {@code payload} shared by all publishes. The payload is copied once.
+     *
+     * @param payload The payload.
+     * @return This builder.
+     * @throws NullPointerException If {@code payload} is null.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder payload(@NotNull ByteBuffer payload);
+
+    /**
+     * Set the data of the given {@link InboundKinesisRecord} as the {@code payload} shared by all publishes. The data
+     * is not copied, the publishes share the read only data buffer of the {@code inboundKinesisRecord}.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} whose data is used as payload.
+     * @return This builder.
+     * @throws NullPointerException     If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                  Extension for Amazon Kinesis".
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder payload(@NotNull InboundKinesisRecord inboundKinesisRecord);
+
+    /**
+     * Set a slice of the data of the given {@link InboundKinesisRecord} as the {@code payload} shared by all
+     * publishes. The data is not copied, the publishes share the read only data buffer of the
+     * {@code inboundKinesisRecord}.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} whose data is used as payload.
+     * @param offset               The index of the first byte of the slice, relative to the start of the record data.
+     * @param length               The number of bytes of the slice.
+     * @return This builder.
+     * @throws NullPointerException      If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException  If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                   Extension for Amazon Kinesis".
+     * @throws IndexOutOfBoundsException If {@code offset} or {@code length} is negative or if {@code offset + length}
+     *                                   exceeds the size of the record data.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder payload(@NotNull InboundKinesisRecord inboundKinesisRecord, int offset, int length);
+
+    /**
+     * Add a topic for which a {@link Publish} with default properties is built.
+     *
+     * @param topic The topic of the publish.
+     * @return This builder.
+     * @throws NullPointerException     If {@code topic} is null.
+     * @throws IllegalArgumentException If {@code topic} is not a valid MQTT topic.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder topic(@NotNull String topic);
+
+    /**
+     * Add a topic for which a {@link Publish} is built. The {@code customizer} sets the properties of this publish,
+     * for example the QoS, the retain flag or user properties, on a {@link PublishBuilder}.
+     * <p>
+     * The {@code customizer} is called once per {@link #build()} call. It must only set properties. Setting the topic
+     * or the payload in the {@code customizer} is not allowed, as it would copy the payload that this builder shares
+     * between all publishes. In this case {@link #build()} throws an {@link IllegalArgumentException}.
+     *
+     * @param topic      The topic of the publish.
+     * @param customizer The customizer of the publish properties.
+     * @return This builder.
+     * @throws NullPointerException     If {@code topic} or {@code customizer} is null.
+     * @throws IllegalArgumentException If {@code topic} is not a valid MQTT topic.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder topic(@NotNull String topic, @NotNull Consumer<@NotNull PublishBuilder> customizer);
+
+    /**
+     * Remove all topics and their customizers added to this builder. The {@code payload} is kept.
+     *
+     * @return This builder.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder clearTopics();
+
+    /**
+     * Create one new {@link Publish} per topic from the current state of this builder. The publishes are returned in
+     * the order the topics were added and can be passed to
+     * {@link com.hivemq.extensions.amazon.kinesis.api.transformers.KinesisToMqttOutput#setPublishes(List)} directly.
+     * <p>
+     * The builder can be reused afterwards. Its state, including the {@code payload} and all topics with their
+     * customizers, is kept. To build the publishes of the next payload for the same topics, only set the new
+     * {@code payload}. To build publishes for different topics, call {@link #clearTopics()} first, otherwise the new
+     * topics are added to the existing ones. The customizers are called anew on every call of this method.
+     *
+     * @return A list of new {@link Publish}es sharing the same payload.
+     * @throws IllegalStateException    If {@code payload} or no topic was set.
+     * @throws IllegalArgumentException If a {@code customizer} set invalid publish properties, a topic or a payload.
+     * @since 4.54.0
+     */
+    @Immutable @NotNull List<@NotNull Publish> build();
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.deadletter;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes {@link OutboundKinesisRecord}s stored by a {@link MqttToKinesisDeadLetterHandler} to Amazon Kinesis again.
+ * <p>
+ * The replay rate is limited by the {@code <replay-rate>} configured in the {@code <mqtt-to-kinesis-route>}, so
+ * a stream that is available again is not overloaded. Records that cannot be written are not passed to the
+ * {@link MqttToKinesisDeadLetterHandler} again, instead the returned {@link CompletableFuture} fails.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+@ThreadSafe
+public interface KinesisRecordReplayer {
+
+    /**
+     * Writes the given {@link OutboundKinesisRecord} to Amazon Kinesis. If the replay rate is exceeded, the record is
+     * written once the rate allows it.
+     * <p>
+     * Wait for the returned {@link CompletableFuture} before reading further records from a local store, so the heap
+     * stays flat while replaying.
+     *
+     * @param outboundKinesisRecord The {@link OutboundKinesisRecord} to write.
+     * @return A {@link CompletableFuture} that completes when the record was written and fails when it could not be
+     *         written.
+     * @throws NullPointerException     If {@code outboundKinesisRecord} is null.
+     * @throws IllegalArgumentException If {@code outboundKinesisRecord} was not created via an
+     *                                  {@link OutboundKinesisRecordBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull CompletableFuture<Void> replay(@NotNull OutboundKinesisRecord outboundKinesisRecord);
+
+    /**
+     * Create a new {@link OutboundKinesisRecordBuilder} to rebuild stored records.
+     *
+     * @return An empty instance of the {@link OutboundKinesisRecordBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordBuilder newOutboundKinesisRecordBuilder();
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.deadletter;
+
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+
+import java.util.Set;
+
+/**
+ * Implement this handler to take over {@link OutboundKinesisRecord}s that could not be written to Amazon Kinesis after
+ * all retries were exhausted, for example during an Amazon Kinesis outage. One instance of the implementing class is
+ * created per reference in the amazon-kinesis-configuration.xml. The methods of this interface may be called
+ * concurrently and must be thread-safe.
+ * <p>
+ * Your implementation of the {@link MqttToKinesisDeadLetterHandler} must be placed in a Java archive (.jar) together
+ * with all its dependencies in the {@code customizations} folder of the "HiveMQ Enterprise Extension for Amazon
+ * Kinesis". In addition, a {@code <dead-letter-handler>} referencing the implementing class via its canonical name must
+ * be configured in the {@code <mqtt-to-kinesis-route>} of the {@code amazon-kinesis-configuration.xml} file.
+ * <p>
+ * If a route configures {@code <dead-letter-journal>} instead, the "HiveMQ Enterprise Extension for Amazon Kinesis"
+ * uses its default implementation. It appends the records to memory-mapped, segment-rotated journal files on the local
+ * disk, so the heap stays flat during long outages, and replays them when the stream is available again. After a
+ * restart of HiveMQ, it replays the records of every stream contained in the journal files.
+ *
+ * @since 4.54.0
+ */
+public interface MqttToKinesisDeadLetterHandler {
+
+    /**
+     * Override the init method to initialize the handler.
+     *
+     * @param mqttToKinesisDeadLetterInitInput The {@code mqttToKinesisDeadLetterInitInput}
+     * @since 4.54.0
+     */
+    default void init(final @NotNull MqttToKinesisDeadLetterInitInput mqttToKinesisDeadLetterInitInput) {
+    }
+
+    /**
+     * Override this method to return the names of all Amazon Kinesis streams for which this handler has stored
+     * records, for example records that were stored before a restart of HiveMQ.
+     * <p>
+     * The streams of an {@code <mqtt-to-kinesis-route>} are chosen per record by its transformer, so the "HiveMQ
+     * Enterprise Extension for Amazon Kinesis" does not know them at startup. This method is called once after
+     * {@link #init(MqttToKinesisDeadLetterInitInput)}, and the returned streams are the ones for which
+     * {@link #onStreamAvailable(MqttToKinesisDeadLetterReplayInput)} is executed at startup.
+     *
+     * @return The names of the streams with stored records, empty by default.
+     * @since 4.54.0
+     */
+    default @NotNull Set<@NotNull String> getStoredStreamNames() {
+        return Set.of();
+    }
+
+    /**
+     * This callback is executed for every {@link OutboundKinesisRecord} of the {@code <mqtt-to-kinesis-route>} that
+     * could not be written to Amazon Kinesis after all retries were exhausted. The record is dropped by the "HiveMQ
+     * Enterprise Extension for Amazon Kinesis" after this method returns. This method is called by multiple threads
+     * concurrently. Extensions are responsible for their own exception handling and this method must not throw any
+     * {@link Exception}.
+     * <p>
+     * If the data of the record was set from a
+     * {@link com.hivemq.extensions.amazon.kinesis.api.builders.KinesisJsonWriter}, it is only valid until this method
+     * returns, as its pooled buffer may be reused afterwards (see {@link OutboundKinesisRecord}). Write or copy
+     * {@link OutboundKinesisRecord#getData()} before returning, for example if the record is stored asynchronously.
+     *
+     * @param mqttToKinesisDeadLetterInput The {@link MqttToKinesisDeadLetterInput} contains the failed
+     *                                     {@link OutboundKinesisRecord}.
+     * @since 4.54.0
+     */
+    @ThreadSafe
+    void onDeadLetter(@NotNull MqttToKinesisDeadLetterInput mqttToKinesisDeadLetterInput);
+
+    /**
+     * This callback is executed when an Amazon Kinesis stream of the {@code <mqtt-to-kinesis-route>} accepts records,
+     * so records stored by {@link #onDeadLetter(MqttToKinesisDeadLetterInput)} can be written to it again via the
+     * {@link KinesisRecordReplayer} of the input. It is executed:
+     * <ul>
+     *     <li>once for each stream returned by {@link #getStoredStreamNames()} as soon as it accepts records, so
+     *     records stored before a restart of HiveMQ are replayed even if the route does not write to the stream
+     *     again.</li>
+     *     <li>each time a stream accepts records again after records for it were passed to
+     *     {@link #onDeadLetter(MqttToKinesisDeadLetterInput)}.</li>
+     * </ul>
+     * <p>
+     * This method is called on a dedicated thread per stream and may block until the replay is done.
+     *
+     * @param mqttToKinesisDeadLetterReplayInput The {@link MqttToKinesisDeadLetterReplayInput} contains the
+     *                                           available stream and the {@link KinesisRecordReplayer}.
+     * @since 4.54.0
+     */
+    default void onStreamAvailable(
+            final @NotNull MqttToKinesisDeadLetterReplayInput mqttToKinesisDeadLetterReplayInput) {
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.deadletter;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+import com.hivemq.extensions.amazon.kinesis.api.transformers.TransformerInput;
+
+/**
+ * The input parameter of {@link MqttToKinesisDeadLetterHandler#onDeadLetter(MqttToKinesisDeadLetterInput)}. It
+ * contains the {@link OutboundKinesisRecord} that could not be written to Amazon Kinesis.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface MqttToKinesisDeadLetterInput extends TransformerInput {
+
+    /**
+     * @return The {@link OutboundKinesisRecord} that could not be written to Amazon Kinesis.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecord getOutboundKinesisRecord();
+
+    /**
+     * @return The error reported by Amazon Kinesis for the last attempt, for example
+     *         {@code ProvisionedThroughputExceededException}.
+     * @since 4.54.0
+     */
+    @NotNull String getFailureReason();
+
+    /**
+     * @return The number of attempts to write the record to Amazon Kinesis.
+     * @since 4.54.0
+     */
+    int getAttempts();
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.deadletter;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.transformers.TransformerInput;
+
+/**
+ * The input parameter of
+ * {@link MqttToKinesisDeadLetterHandler#onStreamAvailable(MqttToKinesisDeadLetterReplayInput)}. It contains the
+ * available Amazon Kinesis stream and the {@link KinesisRecordReplayer} to write stored records to it.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+public interface MqttToKinesisDeadLetterReplayInput extends TransformerInput {
+
+    /**
+     * @return The name of the Amazon Kinesis stream that accepts records again.
+     * @since 4.54.0
+     */
+    @NotNull String getStreamName();
+
+    /**
+     * @return The {@link KinesisRecordReplayer} to write stored records to Amazon Kinesis again.
+     * @since 4.54.0
+     */
+    @NotNull KinesisRecordReplayer getKinesisRecordReplayer();
+}
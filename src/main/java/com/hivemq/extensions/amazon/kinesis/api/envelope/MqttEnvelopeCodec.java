@@ -0,0 +1,306 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.envelope;
+
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.Nullable;
+import com.hivemq.extension.sdk.api.packets.general.Qos;
+import com.hivemq.extension.sdk.api.packets.general.UserProperty;
+import com.hivemq.extension.sdk.api.packets.publish.PayloadFormatIndicator;
+import com.hivemq.extension.sdk.api.packets.publish.PublishPacket;
+import com.hivemq.extension.sdk.api.services.builder.PublishBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+import com.hivemq.extensions.amazon.kinesis.api.transformers.KinesisToMqttOutput;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encodes MQTT PUBLISHes into a compact binary envelope for Amazon Kinesis records and decodes them again, so the
+ * topic, QoS, retain flag and MQTT 5 properties survive a round trip through Amazon Kinesis.
+ * <p>
+ * The envelope has the following layout, all numbers are big endian, all lengths are unsigned 16-bit integers and
+ * all strings are UTF-8 encoded:
+ * <ol>
+ *     <li>{@code version} (1 byte), currently {@value #VERSION}</li>
+ *     <li>{@code flags} (1 byte)<ul>
+ *         <li>bits 0-1: QoS</li>
+ *         <li>bit 2: retain</li>
+ *         <li>bit 3: payload format indicator is UTF-8</li>
+ *         <li>bit 4: message expiry interval is present</li>
+ *         <li>bit 5: response topic is present</li>
+ *         <li>bit 6: correlation data is present</li>
+ *         <li>bit 7: content type is present</li>
+ *     </ul></li>
+ *     <li>{@code topic} (length + bytes)</li>
+ *     <li>{@code message expiry interval} (8 bytes), if present</li>
+ *     <li>{@code response topic} (length + bytes), if present</li>
+ *     <li>{@code correlation data} (length + bytes), if present</li>
+ *     <li>{@code content type} (length + bytes), if present</li>
+ *     <li>{@code user properties} (count + for each property: name length + bytes + value length + bytes)</li>
+ *     <li>{@code payload} (all remaining bytes)</li>
+ * </ol>
+ *
+ * @since 4.54.0
+ */
+public final class MqttEnvelopeCodec {
+
+    /**
+     * The version of the envelope layout written by {@link #encode(PublishPacket)}.
+     *
+     * @since 4.54.0
+     */
+    public static final int VERSION = 1;
+
+    private static final int QOS_MASK = 0b0000_0011;
+    private static final int RETAIN_FLAG = 0b0000_0100;
+    private static final int UTF_8_PAYLOAD_FLAG = 0b0000_1000;
+    private static final int MESSAGE_EXPIRY_INTERVAL_FLAG = 0b0001_0000;
+    private static final int RESPONSE_TOPIC_FLAG = 0b0010_0000;
+    private static final int CORRELATION_DATA_FLAG = 0b0100_0000;
+    private static final int CONTENT_TYPE_FLAG = 0b1000_0000;
+    private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+    private MqttEnvelopeCodec() {
+    }
+
+    /**
+     * Encodes the given {@link PublishPacket} into an envelope.
+     *
+     * @param publishPacket The {@link PublishPacket} to encode.
+     * @return A new {@link ByteBuffer} containing the envelope.
+     * @throws NullPointerException     If {@code publishPacket} is null.
+     * @throws IllegalArgumentException If a string or the correlation data of the {@code publishPacket} exceeds
+     *                                  65,535 bytes or if it has more than 65,535 user properties.
+     * @since 4.54.0
+     */
+    public static @NotNull ByteBuffer encode(final @NotNull PublishPacket publishPacket) {
+        Objects.requireNonNull(publishPacket, "publishPacket must not be null");
+        final byte[] topic = publishPacket.getTopic().getBytes(StandardCharsets.UTF_8);
+        final Long messageExpiryInterval = publishPacket.getMessageExpiryInterval().orElse(null);
+        final byte[] responseTopic = encodeString(publishPacket.getResponseTopic().orElse(null));
+        final ByteBuffer correlationData = publishPacket.getCorrelationData().map(ByteBuffer::duplicate).orElse(null);
+        final byte[] contentType = encodeString(publishPacket.getContentType().orElse(null));
+        final List<UserProperty> userProperties = publishPacket.getUserProperties().asList();
+        final ByteBuffer payload = publishPacket.getPayload().map(ByteBuffer::duplicate).orElse(null);
+        if (userProperties.size() > MAX_UNSIGNED_SHORT) {
+            throw new IllegalArgumentException("publishPacket must not have more than " +
+                    MAX_UNSIGNED_SHORT +
+                    " user properties");
+        }
+
+        int flags = publishPacket.getQos().getQosNumber();
+        int size = 2 + 2 + topic.length + 2;
+        if (publishPacket.getRetain()) {
+            flags |= RETAIN_FLAG;
+        }
+        if (publishPacket.getPayloadFormatIndicator().orElse(null) == PayloadFormatIndicator.UTF_8) {
+            flags |= UTF_8_PAYLOAD_FLAG;
+        }
+        if (messageExpiryInterval != null) {
+            flags |= MESSAGE_EXPIRY_INTERVAL_FLAG;
+            size += 8;
+        }
+        if (responseTopic != null) {
+            flags |= RESPONSE_TOPIC_FLAG;
+            size += 2 + responseTopic.length;
+        }
+        if (correlationData != null) {
+            flags |= CORRELATION_DATA_FLAG;
+            size += 2 + correlationData.remaining();
+        }
+        if (contentType != null) {
+            flags |= CONTENT_TYPE_FLAG;
+            size += 2 + contentType.length;
+        }
+        final byte[][] encodedUserProperties = new byte[userProperties.size() * 2][];
+        for (int i = 0; i < userProperties.size(); i++) {
+            final UserProperty userProperty = userProperties.get(i);
+            encodedUserProperties[2 * i] = userProperty.getName().getBytes(StandardCharsets.UTF_8);
+            encodedUserProperties[2 * i + 1] = userProperty.getValue().getBytes(StandardCharsets.UTF_8);
+            size += 2 + encodedUserProperties[2 * i].length + 2 + encodedUserProperties[2 * i + 1].length;
+        }
+        if (payload != null) {
+            size += payload.remaining();
+        }
+
+        final ByteBuffer envelope = ByteBuffer.allocate(size);
+        envelope.put((byte) VERSION);
+        envelope.put((byte) flags);
+        putBytes(envelope, topic);
+        if (messageExpiryInterval != null) {
+            envelope.putLong(messageExpiryInterval);
+        }
+        if (responseTopic != null) {
+            putBytes(envelope, responseTopic);
+        }
+        if (correlationData != null) {
+            putBytes(envelope, correlationData);
+        }
+        if (contentType != null) {
+            putBytes(envelope, contentType);
+        }
+        envelope.putShort((short) userProperties.size());
+        for (final byte[] encodedUserProperty : encodedUserProperties) {
+            putBytes(envelope, encodedUserProperty);
+        }
+        if (payload != null) {
+            envelope.put(payload);
+        }
+        return envelope.flip();
+    }
+
+    /**
+     * Encodes the given {@link PublishPacket} into an envelope and sets it as the {@code data} of the given
+     * {@link OutboundKinesisRecordBuilder}.
+     * <p>
+     * The envelope is handed over via {@link OutboundKinesisRecordBuilder#wrapData(ByteBuffer)}, so the payload is
+     * copied only once, into the envelope.
+     *
+     * @param publishPacket                The {@link PublishPacket} to encode.
+     * @param outboundKinesisRecordBuilder The {@link OutboundKinesisRecordBuilder} to set the data of.
+     * @return The {@code outboundKinesisRecordBuilder}.
+     * @throws NullPointerException     If {@code publishPacket} or {@code outboundKinesisRecordBuilder} is null.
+     * @throws IllegalArgumentException If a string or the correlation data of the {@code publishPacket} exceeds
+     *                                  65,535 bytes, if it has more than 65,535 user properties or if the envelope
+     *                                  exceeds the max size of 1,048,576 bytes (1MB).
+     * @since 4.54.0
+     */
+    public static @NotNull OutboundKinesisRecordBuilder encode(
+            final @NotNull PublishPacket publishPacket,
+            final @NotNull OutboundKinesisRecordBuilder outboundKinesisRecordBuilder) {
+        Objects.requireNonNull(outboundKinesisRecordBuilder, "outboundKinesisRecordBuilder must not be null");
+        return outboundKinesisRecordBuilder.wrapData(encode(publishPacket));
+    }
+
+    /**
+     * Decodes the envelope in the data of the given {@link InboundKinesisRecord} into a {@link PublishBuilder}.
+     * <p>
+     * The payload is not copied, the publishes built by the returned builder share the read only data buffer of the
+     * {@code inboundKinesisRecord}.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} containing the envelope.
+     * @param kinesisToMqttOutput  The {@link KinesisToMqttOutput} used to create the {@link PublishBuilder}.
+     * @return A new {@link PublishBuilder} with all properties of the envelope set.
+     * @throws NullPointerException     If {@code inboundKinesisRecord} or {@code kinesisToMqttOutput} is null.
+     * @throws IllegalArgumentException If the data of the {@code inboundKinesisRecord} is not a valid envelope of a
+     *                                  supported version, for example if it is truncated or contains a string that is
+     *                                  not valid UTF-8.
+     * @since 4.54.0
+     */
+    public static @NotNull PublishBuilder decode(
+            final @NotNull InboundKinesisRecord inboundKinesisRecord,
+            final @NotNull KinesisToMqttOutput kinesisToMqttOutput) {
+        Objects.requireNonNull(inboundKinesisRecord, "inboundKinesisRecord must not be null");
+        Objects.requireNonNull(kinesisToMqttOutput, "kinesisToMqttOutput must not be null");
+        final ByteBuffer envelope = inboundKinesisRecord.getData().duplicate();
+        final int start = envelope.position();
+        try {
+            final int version = Byte.toUnsignedInt(envelope.get());
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported envelope version " + version);
+            }
+            final int flags = Byte.toUnsignedInt(envelope.get());
+            final Qos qos = Qos.valueOf(flags & QOS_MASK);
+            if (qos == null) {
+                throw new IllegalArgumentException("Invalid QoS in envelope");
+            }
+            final String topic = getString(envelope);
+            final Long messageExpiryInterval =
+                    (flags & MESSAGE_EXPIRY_INTERVAL_FLAG) != 0 ? envelope.getLong() : null;
+            final String responseTopic = (flags & RESPONSE_TOPIC_FLAG) != 0 ? getString(envelope) : null;
+            final ByteBuffer correlationData = (flags & CORRELATION_DATA_FLAG) != 0 ? getSlice(envelope) : null;
+            final String contentType = (flags & CONTENT_TYPE_FLAG) != 0 ? getString(envelope) : null;
+            final int userPropertyCount = Short.toUnsignedInt(envelope.getShort());
+            final String[] userProperties = new String[userPropertyCount * 2];
+            for (int i = 0; i < userProperties.length; i++) {
+                userProperties[i] = getString(envelope);
+            }
+
+            final PublishBuilder publishBuilder = kinesisToMqttOutput.newPublishBuilder(inboundKinesisRecord,
+                    envelope.position() - start,
+                    envelope.remaining());
+            publishBuilder.topic(topic).qos(qos).retain((flags & RETAIN_FLAG) != 0);
+            if ((flags & UTF_8_PAYLOAD_FLAG) != 0) {
+                publishBuilder.payloadFormatIndicator(PayloadFormatIndicator.UTF_8);
+            }
+            if (messageExpiryInterval != null) {
+                publishBuilder.messageExpiryInterval(messageExpiryInterval);
+            }
+            if (responseTopic != null) {
+                publishBuilder.responseTopic(responseTopic);
+            }
+            if (correlationData != null) {
+                publishBuilder.correlationData(correlationData);
+            }
+            if (contentType != null) {
+                publishBuilder.contentType(contentType);
+            }
+            for (int i = 0; i < userProperties.length; i += 2) {
+                publishBuilder.userProperty(userProperties[i], userProperties[i + 1]);
+            }
+            return publishBuilder;
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("Envelope is truncated", e);
+        }
+    }
+
+    private static byte @Nullable [] encodeString(final @Nullable String string) {
+        return string == null ? null : string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(final @NotNull ByteBuffer envelope, final byte @NotNull [] bytes) {
+        putBytes(envelope, ByteBuffer.wrap(bytes));
+    }
+
+    private static void putBytes(final @NotNull ByteBuffer envelope, final @NotNull ByteBuffer bytes) {
+        if (bytes.remaining() > MAX_UNSIGNED_SHORT) {
+            throw new IllegalArgumentException("Envelope field must not exceed " + MAX_UNSIGNED_SHORT + " bytes");
+        }
+        envelope.putShort((short) bytes.remaining());
+        envelope.put(bytes);
+    }
+
+    private static @NotNull ByteBuffer getSlice(final @NotNull ByteBuffer envelope) {
+        final int length = Short.toUnsignedInt(envelope.getShort());
+        if (length > envelope.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final ByteBuffer slice = envelope.slice();
+        slice.limit(length);
+        envelope.position(envelope.position() + length);
+        return slice;
+    }
+
+    private static @NotNull String getString(final @NotNull ByteBuffer envelope) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(getSlice(envelope))
+                    .toString();
+        } catch (final CharacterCodingException e) {
+            throw new IllegalArgumentException("Envelope contains a string that is not valid UTF-8", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.model;
+
+/**
+ * The delivery class of an {@link OutboundKinesisRecord}. It determines how the "HiveMQ Enterprise Extension for
+ * Amazon Kinesis" batches the record before it is written to Amazon Kinesis.
+ * <p>
+ * The delivery class does not change the order in which the records of a stream are submitted. When a record is added
+ * for a stream that has pending records of another delivery class, the pending records of this stream are flushed
+ * first. So records are submitted to Amazon Kinesis in the order they were added, independent of their delivery
+ * class. Frequently alternating delivery classes for the same stream therefore result in smaller batches.
+ * <p>
+ * The submission order is not a guarantee for the order in which records are stored in the shard. Amazon Kinesis does
+ * not guarantee the order of the records within a batch, and records of a batch that failed partially are retried
+ * after records that were submitted later. Records with the same partition key can therefore be stored out of order.
+ * Include a sequence number or timestamp in the data if consumers depend on the order.
+ *
+ * @since 4.54.0
+ */
+public enum KinesisDeliveryClass {
+
+    /**
+     * The record is batched according to the flush policy configured for the {@code <mqtt-to-kinesis-route>}.
+     *
+     * @since 4.54.0
+     */
+    DEFAULT,
+
+    /**
+     * The record is written in the immediate-flush lane. The current batch is flushed as soon as the record is
+     * added, so the record reaches Amazon Kinesis with the lowest possible latency. Pending records of the same stream
+     * in the other lanes are flushed before the record, so it is not submitted before them. Use this for urgent data,
+     * for example alarms.
+     *
+     * @since 4.54.0
+     */
+    LOW_LATENCY,
+
+    /**
+     * The record is written in the max-batch lane. It is held back until a batch of the maximum size is full or the
+     * maximum batch delay is reached, so the number of requests to Amazon Kinesis is as low as possible. Use this for
+     * bulk data, for example telemetry.
+     *
+     * @since 4.54.0
+     */
+    HIGH_THROUGHPUT
+}
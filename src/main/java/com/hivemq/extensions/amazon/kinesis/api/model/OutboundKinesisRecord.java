@@ -27,6 +27,15 @@ import java.util.Optional;
  * Represents an outbound Amazon Kinesis record, that should be written to Kinesis.
  * <p>
  * The internal state of this interface is immutable.
+ * <p>
+ * Records whose data was set from a {@link com.hivemq.extensions.amazon.kinesis.api.builders.KinesisJsonWriter} are
+ * the only exception: their data is backed by a pooled buffer and is therefore not covered by {@link Immutable}. For
+ * these records, {@link #getData()} and {@link #getDataAsByteArray()} are only valid until the record was written to
+ * Amazon Kinesis or, if it could not be written, until
+ * {@link com.hivemq.extensions.amazon.kinesis.api.deadletter.MqttToKinesisDeadLetterHandler#onDeadLetter} returns.
+ * Afterwards the buffer may be reused for other records. Copy the data before that point if it is needed later, for
+ * example to store it asynchronously. The data of all other records is immutable and stays valid as long as the
+ * record is referenced.
  *
  * @author Mario Schwede
  * @since 4.14.0
@@ -40,4 +49,10 @@ public interface OutboundKinesisRecord extends KinesisRecord {
      * @since 4.14.0
      */
     @NotNull Optional<BigInteger> getExplicitHashKey();
+
+    /**
+     * @return The {@link KinesisDeliveryClass} of this record.
+     * @since 4.54.0
+     */
+    @NotNull KinesisDeliveryClass getDeliveryClass();
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.services;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+
+import java.util.Optional;
+
+/**
+ * A bounded cache for enrichment data of transformers, for example device metadata loaded from a local file or a
+ * service. Create it via
+ * {@link com.hivemq.extensions.amazon.kinesis.api.builders.EnrichmentCacheBuilder#build(EnrichmentCacheLoader)}.
+ * <p>
+ * The cache is bounded by its maximum size and its expiry. Entries that are older than the refresh interval are
+ * reloaded in the background while the current value is still returned, so reads do not wait for the
+ * {@link EnrichmentCacheLoader}. Reads of present entries do not block.
+ * <p>
+ * The cache counts its hits, misses and evictions in the {@link com.codahale.metrics.MetricRegistry} with the counters
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.cache.<route-id>.<name>.hit.count},
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.cache.<route-id>.<name>.miss.count} and
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.cache.<route-id>.<name>.eviction.count}. The counters of
+ * all caches with the same name in the same route are shared.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ * @since 4.54.0
+ */
+@DoNotImplement
+@ThreadSafe
+public interface EnrichmentCache<K, V> {
+
+    /**
+     * Returns the value for the given key. If no value is present, it is loaded via the {@link EnrichmentCacheLoader}
+     * of this cache and the calling thread waits for the load.
+     *
+     * @param key The key.
+     * @return An {@link Optional} that contains the value, empty if the loader did not provide a value or failed.
+     * @throws NullPointerException  If {@code key} is null.
+     * @throws IllegalStateException If this cache is closed.
+     * @since 4.54.0
+     */
+    @NotNull Optional<V> get(@NotNull K key);
+
+    /**
+     * Returns the value for the given key without loading it.
+     *
+     * @param key The key.
+     * @return An {@link Optional} that contains the value, empty if no value is present.
+     * @throws NullPointerException  If {@code key} is null.
+     * @throws IllegalStateException If this cache is closed.
+     * @since 4.54.0
+     */
+    @NotNull Optional<V> getIfPresent(@NotNull K key);
+
+    /**
+     * Removes the value for the given key.
+     *
+     * @param key The key.
+     * @throws NullPointerException  If {@code key} is null.
+     * @throws IllegalStateException If this cache is closed.
+     * @since 4.54.0
+     */
+    void invalidate(@NotNull K key);
+
+    /**
+     * Removes all values.
+     *
+     * @throws IllegalStateException If this cache is closed.
+     * @since 4.54.0
+     */
+    void invalidateAll();
+
+    /**
+     * @return The approximate number of values in this cache.
+     * @throws IllegalStateException If this cache is closed.
+     * @since 4.54.0
+     */
+    long size();
+
+    /**
+     * Stops the background refresh and releases all values. Calling any other method of this cache afterwards throws
+     * an {@link IllegalStateException}. The counters are removed from the {@link com.codahale.metrics.MetricRegistry}
+     * when the last cache with the same name in the same route is closed. Calling this method multiple times has no
+     * effect.
+     * <p>
+     * The "HiveMQ Enterprise Extension for Amazon Kinesis" closes all caches of a transformer when the transformer is
+     * removed, for example on a configuration reload.
+     *
+     * @since 4.54.0
+     */
+    void close();
+}
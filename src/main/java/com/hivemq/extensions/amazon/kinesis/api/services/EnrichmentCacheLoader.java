@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.services;
+
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.Nullable;
+
+/**
+ * Loads the values of an {@link EnrichmentCache}. It is called for missing values and in the background for values
+ * that need to be refreshed. The loader may be called concurrently for different keys and must be thread-safe.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ * @since 4.54.0
+ */
+@FunctionalInterface
+public interface EnrichmentCacheLoader<K, V> {
+
+    /**
+     * Loads the value for the given key. This method may block, for example to read a file or call a service.
+     * <p>
+     * If a background refresh fails or returns {@code null}, the current value is kept until it expires.
+     *
+     * @param key The key.
+     * @return The value, or {@code null} if no value exists for the key.
+     * @throws Exception If the value could not be loaded.
+     * @since 4.54.0
+     */
+    @Nullable V load(@NotNull K key) throws Exception;
+}
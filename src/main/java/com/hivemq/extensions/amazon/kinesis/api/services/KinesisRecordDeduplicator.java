@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.services;
+
+import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+
+/**
+ * Detects {@link InboundKinesisRecord}s that were already published, because they are read again after a checkpoint
+ * replay, a consumer failover or a resharding.
+ * <p>
+ * The deduplicator keeps its state per shard with a fixed amount of memory:
+ * <ul>
+ *     <li>A watermark of the highest sequence number marked as published in the shard.</li>
+ *     <li>A bounded set of the most recent sequence numbers below the watermark, for records that are marked out of
+ *     order.</li>
+ * </ul>
+ * A record with a sequence number below the watermark that is no longer covered by the bounded set is treated as a
+ * duplicate.
+ * <p>
+ * The watermark is stored together with each checkpoint of the shard in the lease table of the
+ * {@code <kinesis-to-mqtt-route>}. When a node acquires the lease of a shard, the deduplicator starts with the
+ * watermark of the last checkpoint, no matter if the lease was held by this node or by another node before. Records
+ * that are read again from the last checkpoint of the shard are therefore detected after:
+ * <ul>
+ *     <li>a checkpoint replay, for example after a restart of HiveMQ.</li>
+ *     <li>a consumer failover, when the lease of a shard moves to another node.</li>
+ *     <li>a resharding, when the records of a parent shard are read again because its lease was lost before the end
+ *     of the shard was checkpointed.</li>
+ * </ul>
+ * The bounded set is kept in memory only. After a lease moves, records below the stored watermark are treated as
+ * duplicates, even if they were marked out of order. If a node stops without a final checkpoint, records marked as
+ * published after the last checkpoint are not detected and published again.
+ * <p>
+ * The in-memory state of a shard is released when the shard is closed after a resharding and its end was
+ * checkpointed, or when this node loses the lease of the shard. The state of all shards is released on
+ * {@link #close()}.
+ * <p>
+ * The deduplicator counts its results in the {@link com.codahale.metrics.MetricRegistry} with the counters
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.deduplicator.<route-id>.<name>.hit.count} and
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.deduplicator.<route-id>.<name>.miss.count}. The counters
+ * and the stored watermarks of all deduplicators with the same name in the same route are shared.
+ *
+ * @since 4.54.0
+ */
+@DoNotImplement
+@ThreadSafe
+public interface KinesisRecordDeduplicator {
+
+    /**
+     * Checks if the sequence number of the given {@link InboundKinesisRecord} was already marked as published in its
+     * shard. This method does not mark the record.
+     * <p>
+     * Call this method at the start of
+     * {@link com.hivemq.extensions.amazon.kinesis.api.transformers.KinesisToMqttTransformer#transformKinesisToMqtt}
+     * and do not set any publishes if it returns {@code true}.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} to check.
+     * @return {@code true} if the record is a duplicate, else {@code false}.
+     * @throws NullPointerException     If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                  Extension for Amazon Kinesis".
+     * @throws IllegalStateException    If this deduplicator is closed.
+     * @since 4.54.0
+     */
+    boolean isDuplicate(@NotNull InboundKinesisRecord inboundKinesisRecord);
+
+    /**
+     * Marks the sequence number of the given {@link InboundKinesisRecord} as published in its shard.
+     * <p>
+     * Call this method in
+     * {@link com.hivemq.extensions.amazon.kinesis.api.transformers.KinesisToMqttTransformer#transformKinesisToMqtt}
+     * after the publishes for the record were set. The mark only takes effect after the transformer call returned and
+     * all publishes set for the record were handed to HiveMQ. If publishing them fails, the mark is discarded, so the
+     * record is not treated as a duplicate when it is read again.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} to mark.
+     * @throws NullPointerException     If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                  Extension for Amazon Kinesis".
+     * @throws IllegalStateException    If this deduplicator is closed.
+     * @since 4.54.0
+     */
+    void markPublished(@NotNull InboundKinesisRecord inboundKinesisRecord);
+
+    /**
+     * Releases the in-memory state of all shards. Calling {@link #isDuplicate(InboundKinesisRecord)} or
+     * {@link #markPublished(InboundKinesisRecord)} afterwards throws an {@link IllegalStateException}. The watermarks
+     * stored with the checkpoints are kept. The counters are removed from the
+     * {@link com.codahale.metrics.MetricRegistry} when the last deduplicator with the same name in the same route is
+     * closed. Calling this method multiple times has no effect.
+     * <p>
+     * The "HiveMQ Enterprise Extension for Amazon Kinesis" closes all deduplicators of a transformer when the
+     * transformer is removed, for example on a configuration reload.
+     *
+     * @since 4.54.0
+     */
+    void close();
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.hivemq.extension.sdk.api.annotations.Immutable;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extension.sdk.api.services.publish.Publish;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+
+import java.util.List;
+
+/**
+ * Implement this stage for a {@link KinesisToMqttTransformerChain} to filter, enrich or route the {@link Publish}es
+ * created by the previous stage of the chain.
+ * <p>
+ * A stage has the same output contract as a single {@link KinesisToMqttTransformer}: the {@link Publish}es passed to
+ * {@link KinesisToMqttOutput#setPublishes(List)} replace the publishes of the previous stage. If the stage provides an
+ * empty list or does not call {@link KinesisToMqttOutput#setPublishes(List)}, the {@link InboundKinesisRecord} is
+ * ignored and the remaining stages of the chain are not called. To keep the publishes of the previous stage, pass them
+ * to {@link KinesisToMqttOutput#setPublishes(List)} again.
+ * <p>
+ * Used as a single transformer, the stage is called with an empty list of previous publishes.
+ *
+ * @since 4.54.0
+ */
+@FunctionalInterface
+public interface KinesisToMqttChainStage extends KinesisToMqttTransformer {
+
+    /**
+     * This callback is executed by a {@link KinesisToMqttTransformerChain} for every {@link InboundKinesisRecord} for
+     * which the previous stage of the chain set {@link Publish}es. This method is called by multiple threads
+     * concurrently. Extensions are responsible for their own exception handling and this method must not throw any
+     * {@link Exception}.
+     *
+     * @param kinesisToMqttInput  The {@link KinesisToMqttInput} contains the triggering {@link InboundKinesisRecord}.
+     * @param previousPublishes   The {@link Publish}es set by the previous stage, never empty inside a chain. The list
+     *                            is passed on without copying it and must not be modified.
+     * @param kinesisToMqttOutput The {@link KinesisToMqttOutput} allows to
+     *                            {@link KinesisToMqttOutput#setPublishes(List)}.
+     * @since 4.54.0
+     */
+    @ThreadSafe
+    void transformKinesisToMqtt(
+            @NotNull KinesisToMqttInput kinesisToMqttInput,
+            @Immutable @NotNull List<@NotNull Publish> previousPublishes,
+            @NotNull KinesisToMqttOutput kinesisToMqttOutput);
+
+    /**
+     * Calls {@link #transformKinesisToMqtt(KinesisToMqttInput, List, KinesisToMqttOutput)} with an empty list of
+     * previous publishes, if this stage is used as a single transformer or as the first stage of a chain.
+     *
+     * @param kinesisToMqttInput  The {@link KinesisToMqttInput} contains the triggering {@link InboundKinesisRecord}.
+     * @param kinesisToMqttOutput The {@link KinesisToMqttOutput} allows to
+     *                            {@link KinesisToMqttOutput#setPublishes(List)}.
+     * @since 4.54.0
+     */
+    @Override
+    @ThreadSafe
+    default void transformKinesisToMqtt(
+            final @NotNull KinesisToMqttInput kinesisToMqttInput,
+            final @NotNull KinesisToMqttOutput kinesisToMqttOutput) {
+        transformKinesisToMqtt(kinesisToMqttInput, List.of(), kinesisToMqttOutput);
+    }
+}
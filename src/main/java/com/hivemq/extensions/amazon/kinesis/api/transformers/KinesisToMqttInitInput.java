@@ -17,6 +17,9 @@
 package com.hivemq.extensions.amazon.kinesis.api.transformers;
 
 import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.builders.EnrichmentCacheBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.services.KinesisRecordDeduplicator;
 
 /**
  * Provides context for the initialization of a {@link KinesisToMqttTransformer}.
@@ -26,4 +29,40 @@ import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
  */
 @DoNotImplement
 public interface KinesisToMqttInitInput extends TransformerInput {
+
+    /**
+     * Creates a new {@link KinesisRecordDeduplicator} that detects records which were already marked as published by
+     * this transformer.
+     * <p>
+     * Each deduplicator uses a fixed amount of memory per shard. The {@code outOfOrderCapacity} bounds the number of
+     * sequence numbers below the watermark of a shard that are retained to detect duplicates of records marked out of
+     * order.
+     * <p>
+     * The {@code name} is scoped to the route of this transformer and does not need to be unique. Deduplicators with
+     * the same name in the same route, for example of the same transformer class used twice in a
+     * {@link KinesisToMqttTransformerChain} or of a transformer that is initialized again after a configuration
+     * reload, have their own in-memory state but share their counters and the watermarks stored with the checkpoints.
+     *
+     * @param name               The name of the deduplicator, used in the names of its metrics and to store its
+     *                           watermarks.
+     * @param outOfOrderCapacity The number of sequence numbers retained per shard below its watermark.
+     * @return A new {@link KinesisRecordDeduplicator}.
+     * @throws NullPointerException     If {@code name} is null.
+     * @throws IllegalArgumentException If {@code name} is empty or {@code outOfOrderCapacity} is negative.
+     * @since 4.54.0
+     */
+    @NotNull KinesisRecordDeduplicator newKinesisRecordDeduplicator(@NotNull String name, int outOfOrderCapacity);
+
+    /**
+     * Creates a new {@link EnrichmentCacheBuilder} to build a bounded cache for enrichment data of this transformer.
+     * <p>
+     * Create the caches in {@link KinesisToMqttTransformer#init(KinesisToMqttInitInput)} and keep them for all
+     * transformer calls. The cache name is scoped to the route of this transformer, so the same transformer class can
+     * be used multiple times, for example in a {@link KinesisToMqttTransformerChain}, and can be initialized again
+     * after a configuration reload.
+     *
+     * @return An empty instance of the {@link EnrichmentCacheBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder newEnrichmentCacheBuilder();
 }
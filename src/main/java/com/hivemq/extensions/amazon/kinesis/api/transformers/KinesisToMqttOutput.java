@@ -20,6 +20,7 @@ import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
 import com.hivemq.extension.sdk.api.annotations.NotNull;
 import com.hivemq.extension.sdk.api.services.builder.PublishBuilder;
 import com.hivemq.extension.sdk.api.services.publish.Publish;
+import com.hivemq.extensions.amazon.kinesis.api.builders.PublishFanOutBuilder;
 import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
 
 import java.util.List;
@@ -42,6 +43,60 @@ public interface KinesisToMqttOutput {
      */
     @NotNull PublishBuilder newPublishBuilder();
 
+    /**
+     * Creates a new {@link PublishBuilder} with its payload preset to the data of the given
+     * {@link InboundKinesisRecord}.
+     * <p>
+     * In contrast to {@link PublishBuilder#payload(java.nio.ByteBuffer)}, the data is not copied. The built
+     * {@link Publish}es share the read only data buffer of the {@code inboundKinesisRecord}. This avoids allocations
+     * for routes that forward the record data unchanged.
+     * <p>
+     * Calling {@link PublishBuilder#payload(java.nio.ByteBuffer)} on the returned builder replaces the shared payload
+     * with a copy of the given payload.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} whose data is used as payload.
+     * @return A new {@link PublishBuilder} with a preset payload.
+     * @throws NullPointerException     If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                  Extension for Amazon Kinesis".
+     * @since 4.54.0
+     */
+    @NotNull PublishBuilder newPublishBuilder(@NotNull InboundKinesisRecord inboundKinesisRecord);
+
+    /**
+     * Creates a new {@link PublishBuilder} with its payload preset to a slice of the data of the given
+     * {@link InboundKinesisRecord}.
+     * <p>
+     * In contrast to {@link PublishBuilder#payload(java.nio.ByteBuffer)}, the data is not copied. The built
+     * {@link Publish}es share the read only data buffer of the {@code inboundKinesisRecord}. This avoids allocations
+     * for routes that forward a part of the record data unchanged.
+     * <p>
+     * Calling {@link PublishBuilder#payload(java.nio.ByteBuffer)} on the returned builder replaces the shared payload
+     * with a copy of the given payload.
+     *
+     * @param inboundKinesisRecord The {@link InboundKinesisRecord} whose data is used as payload.
+     * @param offset               The index of the first byte of the slice, relative to the start of the record data.
+     * @param length               The number of bytes of the slice.
+     * @return A new {@link PublishBuilder} with a preset payload.
+     * @throws NullPointerException      If {@code inboundKinesisRecord} is null.
+     * @throws IllegalArgumentException  If {@code inboundKinesisRecord} was not provided by the "HiveMQ Enterprise
+     *                                   Extension for Amazon Kinesis".
+     * @throws IndexOutOfBoundsException If {@code offset} or {@code length} is negative or if {@code offset + length}
+     *                                   exceeds the size of the record data.
+     * @since 4.54.0
+     */
+    @NotNull PublishBuilder newPublishBuilder(
+            @NotNull InboundKinesisRecord inboundKinesisRecord, int offset, int length);
+
+    /**
+     * Creates a new {@link PublishFanOutBuilder}. It builds one {@link Publish} per topic that all share the same
+     * payload buffer, so publishing one payload to many topics does not copy the payload per topic.
+     *
+     * @return An empty instance of the {@link PublishFanOutBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull PublishFanOutBuilder newPublishFanOutBuilder();
+
     /**
      * Sets the {@link Publish}es, that will be published by HiveMQ after the
      * {@link KinesisToMqttTransformer#transformKinesisToMqtt(KinesisToMqttInput, KinesisToMqttOutput)} call returns.
@@ -52,7 +107,8 @@ public interface KinesisToMqttOutput {
      * published by HiveMQ for a given {@link InboundKinesisRecord}, provide an empty list or just don't call this
      * method.
      * <p>
-     * Use the {@link #newPublishBuilder() PublishBuilder} to create new publishes as desired.
+     * Use the {@link #newPublishBuilder() PublishBuilder} to create new publishes as desired. To forward the data of an
+     * {@link InboundKinesisRecord} without copying it, use {@link #newPublishBuilder(InboundKinesisRecord)}.
      * <p>
      * Each additional call of this method will overwrite the previous one.
      *
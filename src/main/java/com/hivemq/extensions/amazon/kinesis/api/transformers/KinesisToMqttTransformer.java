@@ -47,6 +47,36 @@ public interface KinesisToMqttTransformer {
     default void init(final @NotNull KinesisToMqttInitInput kinesisToMqttInitInput) {
     }
 
+    /**
+     * Override the close method to release the resources of the transformer, for example metrics that it registered
+     * in {@link #init(KinesisToMqttInitInput)}.
+     * <p>
+     * This method is called once when the transformer is removed, for example on a configuration reload or when the
+     * "HiveMQ Enterprise Extension for Amazon Kinesis" stops. It is called after all transform calls of this
+     * transformer returned and before a transformer that replaces it in the same route is initialized.
+     *
+     * @since 4.54.0
+     */
+    default void close() {
+    }
+
+    /**
+     * Override this method to declare on which kind of threads the transform method of this transformer is executed.
+     * <p>
+     * Transformers that block, for example on file or socket reads, should return
+     * {@link TransformerExecutionMode#VIRTUAL_THREADS}, so a large number of concurrent blocking transformations does
+     * not require a large pool of platform threads.
+     * <p>
+     * This method is called once after {@link #init(KinesisToMqttInitInput)}.
+     *
+     * @return The {@link TransformerExecutionMode} of this transformer,
+     *         {@link TransformerExecutionMode#PLATFORM_THREADS} by default.
+     * @since 4.54.0
+     */
+    default @NotNull TransformerExecutionMode getExecutionMode() {
+        return TransformerExecutionMode.PLATFORM_THREADS;
+    }
+
     /**
      * This callback is executed for every {@link InboundKinesisRecord} that the "HiveMQ Enterprise Extension for
      * Amazon Kinesis" polls from Amazon Kinesis according to the configured {@code <kinesis-streams>}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.Nullable;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extension.sdk.api.services.builder.PublishBuilder;
+import com.hivemq.extension.sdk.api.services.publish.Publish;
+import com.hivemq.extensions.amazon.kinesis.api.builders.PublishFanOutBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link KinesisToMqttTransformer} that fuses several {@link KinesisToMqttTransformer} stages into a single
+ * transformer of a {@code <kinesis-to-mqtt-route>}.
+ * <p>
+ * The stages are called in order with the same {@link KinesisToMqttInput}. Each stage has the same output contract as
+ * a single transformer:
+ * <ul>
+ *     <li>The {@link Publish}es that a stage passes to {@link KinesisToMqttOutput#setPublishes(List)} replace the
+ *     publishes of the previous stage.</li>
+ *     <li>If a stage provides an empty list or does not call {@link KinesisToMqttOutput#setPublishes(List)}, the
+ *     {@link InboundKinesisRecord} is ignored and the remaining stages are not called. So existing filter
+ *     transformers keep filtering inside a chain.</li>
+ * </ul>
+ * A stage that implements {@link KinesisToMqttChainStage} receives the publishes of the previous stage, other stages
+ * create their publishes from the {@link KinesisToMqttInput}. The publishes of the last stage are passed to the
+ * {@link KinesisToMqttOutput} of the chain.
+ * <p>
+ * The list set by a stage is passed to the next stage and to the {@link KinesisToMqttOutput} of the chain without
+ * copying it, so a stage must not modify a list after setting it. Per {@link InboundKinesisRecord}, the chain only
+ * allocates a single output object that is shared by all stages.
+ * <p>
+ * To use a chain, extend this class with a public no-argument constructor and reference the subclass in the
+ * {@code <transformer>} of the {@code amazon-kinesis-configuration.xml}:
+ * <pre>{@code
+ * public class MyChain extends KinesisToMqttTransformerChain {
+ *     public MyChain() {
+ *         super("my-chain", new MyRouter(), new MyFilter(), new MyEnricher());
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * The chain registers a {@link Timer} for each stage in the {@link MetricRegistry} with the name
+ * {@code <prefix>.<route-id>.<name>.stage.<index>.time}, where {@code prefix} is
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.chain.kinesis-to-mqtt} and {@code index} starts at 0.
+ * The timers are removed on {@link #close()}.
+ *
+ * @since 4.54.0
+ */
+public class KinesisToMqttTransformerChain implements KinesisToMqttTransformer {
+
+    private static final @NotNull String METRIC_PREFIX =
+            "com.hivemq.extensions.amazon-kinesis.customizations.chain.kinesis-to-mqtt";
+
+    private final @NotNull String name;
+    private final @NotNull KinesisToMqttTransformer @NotNull [] stages;
+    private volatile @Nullable MetricRegistry metricRegistry;
+    private volatile @NotNull String @Nullable [] stageTimerNames;
+    private volatile @NotNull Timer @Nullable [] stageTimers;
+
+    /**
+     * @param name   The name of this chain, used in the names of the stage metrics.
+     * @param stages The stages of this chain in the order they are called.
+     * @throws NullPointerException     If {@code name}, {@code stages} or any element of it is null.
+     * @throws IllegalArgumentException If {@code name} or {@code stages} is empty.
+     * @since 4.54.0
+     */
+    public KinesisToMqttTransformerChain(
+            final @NotNull String name, final @NotNull KinesisToMqttTransformer @NotNull ... stages) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(stages, "stages must not be null");
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be empty");
+        }
+        if (stages.length == 0) {
+            throw new IllegalArgumentException("stages must not be empty");
+        }
+        for (final KinesisToMqttTransformer stage : stages) {
+            Objects.requireNonNull(stage, "stages must not contain null elements");
+        }
+        this.name = name;
+        this.stages = stages.clone();
+    }
+
+    /**
+     * Initializes all stages in order and registers the stage metrics.
+     *
+     * @param kinesisToMqttInitInput The {@code kinesisToMqttInitInput}
+     * @since 4.54.0
+     */
+    @Override
+    public void init(final @NotNull KinesisToMqttInitInput kinesisToMqttInitInput) {
+        final MetricRegistry metricRegistry = kinesisToMqttInitInput.getMetricRegistry();
+        final String routeId = kinesisToMqttInitInput.getRouteId();
+        final String[] stageTimerNames = new String[stages.length];
+        final Timer[] stageTimers = new Timer[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i].init(kinesisToMqttInitInput);
+            stageTimerNames[i] = MetricRegistry.name(METRIC_PREFIX, routeId, name, "stage", String.valueOf(i), "time");
+            stageTimers[i] = metricRegistry.timer(stageTimerNames[i]);
+        }
+        this.metricRegistry = metricRegistry;
+        this.stageTimerNames = stageTimerNames;
+        this.stageTimers = stageTimers;
+    }
+
+    /**
+     * Closes all stages in order and removes the stage metrics.
+     *
+     * @since 4.54.0
+     */
+    @Override
+    public void close() {
+        final MetricRegistry metricRegistry = this.metricRegistry;
+        final String[] stageTimerNames = this.stageTimerNames;
+        this.stageTimers = null;
+        this.stageTimerNames = null;
+        this.metricRegistry = null;
+        for (final KinesisToMqttTransformer stage : stages) {
+            stage.close();
+        }
+        if (metricRegistry != null && stageTimerNames != null) {
+            for (final String stageTimerName : stageTimerNames) {
+                metricRegistry.remove(stageTimerName);
+            }
+        }
+    }
+
+    /**
+     * @return {@link TransformerExecutionMode#VIRTUAL_THREADS} if any stage declares it, else
+     *         {@link TransformerExecutionMode#PLATFORM_THREADS}.
+     * @since 4.54.0
+     */
+    @Override
+    public @NotNull TransformerExecutionMode getExecutionMode() {
+        for (final KinesisToMqttTransformer stage : stages) {
+            if (stage.getExecutionMode() == TransformerExecutionMode.VIRTUAL_THREADS) {
+                return TransformerExecutionMode.VIRTUAL_THREADS;
+            }
+        }
+        return TransformerExecutionMode.PLATFORM_THREADS;
+    }
+
+    @Override
+    @ThreadSafe
+    public void transformKinesisToMqtt(
+            final @NotNull KinesisToMqttInput kinesisToMqttInput,
+            final @NotNull KinesisToMqttOutput kinesisToMqttOutput) {
+        final Timer[] stageTimers = this.stageTimers;
+        final StageOutput stageOutput = new StageOutput(kinesisToMqttOutput);
+        List<Publish> publishes = List.of();
+        for (int i = 0; i < stages.length; i++) {
+            stageOutput.publishes = null;
+            final Timer.Context context = stageTimers == null ? null : stageTimers[i].time();
+            try {
+                transformStage(stages[i], kinesisToMqttInput, publishes, stageOutput);
+            } finally {
+                if (context != null) {
+                    context.stop();
+                }
+            }
+            publishes = stageOutput.publishes;
+            if (publishes == null || publishes.isEmpty()) {
+                return;
+            }
+        }
+        kinesisToMqttOutput.setPublishes(publishes);
+    }
+
+    private static void transformStage(
+            final @NotNull KinesisToMqttTransformer stage,
+            final @NotNull KinesisToMqttInput kinesisToMqttInput,
+            final @NotNull List<@NotNull Publish> previousPublishes,
+            final @NotNull StageOutput stageOutput) {
+        if (stage instanceof KinesisToMqttChainStage) {
+            ((KinesisToMqttChainStage) stage).transformKinesisToMqtt(
+                    kinesisToMqttInput, previousPublishes, stageOutput);
+        } else {
+            stage.transformKinesisToMqtt(kinesisToMqttInput, stageOutput);
+        }
+    }
+
+    private static final class StageOutput implements KinesisToMqttOutput {
+
+        private final @NotNull KinesisToMqttOutput delegate;
+        private @Nullable List<@NotNull Publish> publishes;
+
+        private StageOutput(final @NotNull KinesisToMqttOutput delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public @NotNull PublishBuilder newPublishBuilder() {
+            return delegate.newPublishBuilder();
+        }
+
+        @Override
+        public @NotNull PublishBuilder newPublishBuilder(final @NotNull InboundKinesisRecord inboundKinesisRecord) {
+            return delegate.newPublishBuilder(inboundKinesisRecord);
+        }
+
+        @Override
+        public @NotNull PublishBuilder newPublishBuilder(
+                final @NotNull InboundKinesisRecord inboundKinesisRecord, final int offset, final int length) {
+            return delegate.newPublishBuilder(inboundKinesisRecord, offset, length);
+        }
+
+        @Override
+        public @NotNull PublishFanOutBuilder newPublishFanOutBuilder() {
+            return delegate.newPublishFanOutBuilder();
+        }
+
+        @Override
+        public void setPublishes(final @NotNull List<@NotNull Publish> publishes) {
+            Objects.requireNonNull(publishes, "publishes must not be null");
+            for (final Publish publish : publishes) {
+                Objects.requireNonNull(publish, "publishes must not contain null elements");
+            }
+            this.publishes = publishes;
+        }
+    }
+}
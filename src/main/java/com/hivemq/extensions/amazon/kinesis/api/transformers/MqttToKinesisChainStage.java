@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.hivemq.extension.sdk.api.annotations.Immutable;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+
+import java.util.List;
+
+/**
+ * Implement this stage for a {@link MqttToKinesisTransformerChain} to filter, enrich or route the
+ * {@link OutboundKinesisRecord}s created by the previous stage of the chain.
+ * <p>
+ * A stage has the same output contract as a single {@link MqttToKinesisTransformer}: the {@link OutboundKinesisRecord}s
+ * passed to {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)} replace the records of the previous stage.
+ * If the stage provides an empty list or does not call {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)},
+ * the MQTT PUBLISH is dismissed and the remaining stages of the chain are not called. To keep the records of the
+ * previous stage, pass them to {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)} again.
+ * <p>
+ * Used as a single transformer, the stage is called with an empty list of previous records.
+ *
+ * @since 4.54.0
+ */
+@FunctionalInterface
+public interface MqttToKinesisChainStage extends MqttToKinesisTransformer {
+
+    /**
+     * This callback is executed by a {@link MqttToKinesisTransformerChain} for every MQTT PUBLISH for which the
+     * previous stage of the chain set {@link OutboundKinesisRecord}s. This method is called by multiple threads
+     * concurrently. Extensions are responsible for their own exception handling and this method must not throw any
+     * {@link Exception}.
+     *
+     * @param mqttToKinesisInput             The {@link MqttToKinesisInput} contains the triggering
+     *                                       {@link com.hivemq.extension.sdk.api.packets.publish.PublishPacket}
+     *                                       information.
+     * @param previousOutboundKinesisRecords The {@link OutboundKinesisRecord}s set by the previous stage, never empty
+     *                                       inside a chain. The list is passed on without copying it and must not be
+     *                                       modified.
+     * @param mqttToKinesisOutput            Pass the list of {@link OutboundKinesisRecord}s of this stage to the
+     *                                       {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)} method.
+     * @since 4.54.0
+     */
+    @ThreadSafe
+    void transformMqttToKinesis(
+            @NotNull MqttToKinesisInput mqttToKinesisInput,
+            @Immutable @NotNull List<@NotNull OutboundKinesisRecord> previousOutboundKinesisRecords,
+            @NotNull MqttToKinesisOutput mqttToKinesisOutput);
+
+    /**
+     * Calls {@link #transformMqttToKinesis(MqttToKinesisInput, List, MqttToKinesisOutput)} with an empty list of
+     * previous records, if this stage is used as a single transformer or as the first stage of a chain.
+     *
+     * @param mqttToKinesisInput  The {@link MqttToKinesisInput} contains the triggering
+     *                            {@link com.hivemq.extension.sdk.api.packets.publish.PublishPacket} information.
+     * @param mqttToKinesisOutput Pass the list of new {@link OutboundKinesisRecord}s to the
+     *                            {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)} method.
+     * @since 4.54.0
+     */
+    @Override
+    @ThreadSafe
+    default void transformMqttToKinesis(
+            final @NotNull MqttToKinesisInput mqttToKinesisInput,
+            final @NotNull MqttToKinesisOutput mqttToKinesisOutput) {
+        transformMqttToKinesis(mqttToKinesisInput, List.of(), mqttToKinesisOutput);
+    }
+}
@@ -17,6 +17,8 @@
 package com.hivemq.extensions.amazon.kinesis.api.transformers;
 
 import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.builders.EnrichmentCacheBuilder;
 
 /**
  * Provides context for the initialization of a {@link MqttToKinesisTransformer}.
@@ -26,4 +28,17 @@ import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
  */
 @DoNotImplement
 public interface MqttToKinesisInitInput extends TransformerInput {
+
+    /**
+     * Creates a new {@link EnrichmentCacheBuilder} to build a bounded cache for enrichment data of this transformer.
+     * <p>
+     * Create the caches in {@link MqttToKinesisTransformer#init(MqttToKinesisInitInput)} and keep them for all
+     * transformer calls. The cache name is scoped to the route of this transformer, so the same transformer class can
+     * be used multiple times, for example in a {@link MqttToKinesisTransformerChain}, and can be initialized again
+     * after a configuration reload.
+     *
+     * @return An empty instance of the {@link EnrichmentCacheBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull EnrichmentCacheBuilder newEnrichmentCacheBuilder();
 }
@@ -18,7 +18,9 @@ package com.hivemq.extensions.amazon.kinesis.api.transformers;
 
 import com.hivemq.extension.sdk.api.annotations.DoNotImplement;
 import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.builders.KinesisJsonWriter;
 import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordFanOutBuilder;
 import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
 
 import java.util.List;
@@ -47,6 +49,25 @@ public interface MqttToKinesisOutput {
      */
     @NotNull OutboundKinesisRecordBuilder newOutboundKinesisRecordBuilder();
 
+    /**
+     * Create a new {@link OutboundKinesisRecordFanOutBuilder}. It builds one {@link OutboundKinesisRecord} per target
+     * stream and partition key that all share the same data, so the data is copied only once.
+     *
+     * @return An empty instance of the {@link OutboundKinesisRecordFanOutBuilder}.
+     * @since 4.54.0
+     */
+    @NotNull OutboundKinesisRecordFanOutBuilder newOutboundKinesisRecordFanOutBuilder();
+
+    /**
+     * Create a new {@link KinesisJsonWriter} that serializes JSON directly into a pooled buffer. Pass the writer to
+     * {@link OutboundKinesisRecordBuilder#data(KinesisJsonWriter)} to use the written JSON as record data without
+     * further copies.
+     *
+     * @return An empty instance of the {@link KinesisJsonWriter}.
+     * @since 4.54.0
+     */
+    @NotNull KinesisJsonWriter newKinesisJsonWriter();
+
     /**
      * Sets the {@link OutboundKinesisRecord}s, that will be pushed to Amazon Kinesis after the
      * {@link MqttToKinesisTransformer#transformMqttToKinesis(MqttToKinesisInput, MqttToKinesisOutput)} call returns.
@@ -60,7 +81,8 @@ public interface MqttToKinesisOutput {
      * this
      * method.
      * <p>
-     * Use the {@link OutboundKinesisRecordBuilder} to create new records as desired.
+     * Use the {@link OutboundKinesisRecordBuilder} to create new records as desired. To send the same data to multiple
+     * streams, use the {@link OutboundKinesisRecordFanOutBuilder}.
      * <p>
      * Each additional call of this method will overwrite the previous one.
      *
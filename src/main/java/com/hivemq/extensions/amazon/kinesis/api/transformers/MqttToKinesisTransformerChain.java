@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.annotations.Nullable;
+import com.hivemq.extension.sdk.api.annotations.ThreadSafe;
+import com.hivemq.extensions.amazon.kinesis.api.builders.KinesisJsonWriter;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordFanOutBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link MqttToKinesisTransformer} that fuses several {@link MqttToKinesisTransformer} stages into a single
+ * transformer of a {@code <mqtt-to-kinesis-route>}.
+ * <p>
+ * The stages are called in order with the same {@link MqttToKinesisInput}. Each stage has the same output contract as
+ * a single transformer:
+ * <ul>
+ *     <li>The {@link OutboundKinesisRecord}s that a stage passes to
+ *     {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)} replace the records of the previous stage.</li>
+ *     <li>If a stage provides an empty list or does not call
+ *     {@link MqttToKinesisOutput#setOutboundKinesisRecords(List)}, the MQTT PUBLISH is dismissed and the remaining
+ *     stages are not called. So existing filter transformers keep filtering inside a chain.</li>
+ * </ul>
+ * A stage that implements {@link MqttToKinesisChainStage} receives the records of the previous stage, other stages
+ * create their records from the {@link MqttToKinesisInput}. The records of the last stage are passed to the
+ * {@link MqttToKinesisOutput} of the chain.
+ * <p>
+ * The list set by a stage is passed to the next stage and to the {@link MqttToKinesisOutput} of the chain without
+ * copying it, so a stage must not modify a list after setting it. Per MQTT PUBLISH, the chain only allocates a single
+ * output object that is shared by all stages.
+ * <p>
+ * To use a chain, extend this class with a public no-argument constructor and reference the subclass in the
+ * {@code <transformer>} of the {@code amazon-kinesis-configuration.xml}:
+ * <pre>{@code
+ * public class MyChain extends MqttToKinesisTransformerChain {
+ *     public MyChain() {
+ *         super("my-chain", new MyRouter(), new MyFilter(), new MyEnricher());
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * The chain registers a {@link Timer} for each stage in the {@link MetricRegistry} with the name
+ * {@code <prefix>.<route-id>.<name>.stage.<index>.time}, where {@code prefix} is
+ * {@code com.hivemq.extensions.amazon-kinesis.customizations.chain.mqtt-to-kinesis} and {@code index} starts at 0.
+ * The timers are removed on {@link #close()}.
+ *
+ * @since 4.54.0
+ */
+public class MqttToKinesisTransformerChain implements MqttToKinesisTransformer {
+
+    private static final @NotNull String METRIC_PREFIX =
+            "com.hivemq.extensions.amazon-kinesis.customizations.chain.mqtt-to-kinesis";
+
+    private final @NotNull String name;
+    private final @NotNull MqttToKinesisTransformer @NotNull [] stages;
+    private volatile @Nullable MetricRegistry metricRegistry;
+    private volatile @NotNull String @Nullable [] stageTimerNames;
+    private volatile @NotNull Timer @Nullable [] stageTimers;
+
+    /**
+     * @param name   The name of this chain, used in the names of the stage metrics.
+     * @param stages The stages of this chain in the order they are called.
+     * @throws NullPointerException     If {@code name}, {@code stages} or any element of it is null.
+     * @throws IllegalArgumentException If {@code name} or {@code stages} is empty.
+     * @since 4.54.0
+     */
+    public MqttToKinesisTransformerChain(
+            final @NotNull String name, final @NotNull MqttToKinesisTransformer @NotNull ... stages) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(stages, "stages must not be null");
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be empty");
+        }
+        if (stages.length == 0) {
+            throw new IllegalArgumentException("stages must not be empty");
+        }
+        for (final MqttToKinesisTransformer stage : stages) {
+            Objects.requireNonNull(stage, "stages must not contain null elements");
+        }
+        this.name = name;
+        this.stages = stages.clone();
+    }
+
+    /**
+     * Initializes all stages in order and registers the stage metrics.
+     *
+     * @param mqttToKinesisInitInput The {@code mqttToKinesisInitInput}
+     * @since 4.54.0
+     */
+    @Override
+    public void init(final @NotNull MqttToKinesisInitInput mqttToKinesisInitInput) {
+        final MetricRegistry metricRegistry = mqttToKinesisInitInput.getMetricRegistry();
+        final String routeId = mqttToKinesisInitInput.getRouteId();
+        final String[] stageTimerNames = new String[stages.length];
+        final Timer[] stageTimers = new Timer[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i].init(mqttToKinesisInitInput);
+            stageTimerNames[i] = MetricRegistry.name(METRIC_PREFIX, routeId, name, "stage", String.valueOf(i), "time");
+            stageTimers[i] = metricRegistry.timer(stageTimerNames[i]);
+        }
+        this.metricRegistry = metricRegistry;
+        this.stageTimerNames = stageTimerNames;
+        this.stageTimers = stageTimers;
+    }
+
+    /**
+     * Closes all stages in order and removes the stage metrics.
+     *
+     * @since 4.54.0
+     */
+    @Override
+    public void close() {
+        final MetricRegistry metricRegistry = this.metricRegistry;
+        final String[] stageTimerNames = this.stageTimerNames;
+        this.stageTimers = null;
+        this.stageTimerNames = null;
+        this.metricRegistry = null;
+        for (final MqttToKinesisTransformer stage : stages) {
+            stage.close();
+        }
+        if (metricRegistry != null && stageTimerNames != null) {
+            for (final String stageTimerName : stageTimerNames) {
+                metricRegistry.remove(stageTimerName);
+            }
+        }
+    }
+
+    /**
+     * @return {@link TransformerExecutionMode#VIRTUAL_THREADS} if any stage declares it, else
+     *         {@link TransformerExecutionMode#PLATFORM_THREADS}.
+     * @since 4.54.0
+     */
+    @Override
+    public @NotNull TransformerExecutionMode getExecutionMode() {
+        for (final MqttToKinesisTransformer stage : stages) {
+            if (stage.getExecutionMode() == TransformerExecutionMode.VIRTUAL_THREADS) {
+                return TransformerExecutionMode.VIRTUAL_THREADS;
+            }
+        }
+        return TransformerExecutionMode.PLATFORM_THREADS;
+    }
+
+    @Override
+    @ThreadSafe
+    public void transformMqttToKinesis(
+            final @NotNull MqttToKinesisInput mqttToKinesisInput,
+            final @NotNull MqttToKinesisOutput mqttToKinesisOutput) {
+        final Timer[] stageTimers = this.stageTimers;
+        final StageOutput stageOutput = new StageOutput(mqttToKinesisOutput);
+        List<OutboundKinesisRecord> outboundKinesisRecords = List.of();
+        for (int i = 0; i < stages.length; i++) {
+            stageOutput.outboundKinesisRecords = null;
+            final Timer.Context context = stageTimers == null ? null : stageTimers[i].time();
+            try {
+                transformStage(stages[i], mqttToKinesisInput, outboundKinesisRecords, stageOutput);
+            } finally {
+                if (context != null) {
+                    context.stop();
+                }
+            }
+            outboundKinesisRecords = stageOutput.outboundKinesisRecords;
+            if (outboundKinesisRecords == null || outboundKinesisRecords.isEmpty()) {
+                return;
+            }
+        }
+        mqttToKinesisOutput.setOutboundKinesisRecords(outboundKinesisRecords);
+    }
+
+    private static void transformStage(
+            final @NotNull MqttToKinesisTransformer stage,
+            final @NotNull MqttToKinesisInput mqttToKinesisInput,
+            final @NotNull List<@NotNull OutboundKinesisRecord> previousOutboundKinesisRecords,
+            final @NotNull StageOutput stageOutput) {
+        if (stage instanceof MqttToKinesisChainStage) {
+            ((MqttToKinesisChainStage) stage).transformMqttToKinesis(
+                    mqttToKinesisInput, previousOutboundKinesisRecords, stageOutput);
+        } else {
+            stage.transformMqttToKinesis(mqttToKinesisInput, stageOutput);
+        }
+    }
+
+    private static final class StageOutput implements MqttToKinesisOutput {
+
+        private final @NotNull MqttToKinesisOutput delegate;
+        private @Nullable List<@NotNull OutboundKinesisRecord> outboundKinesisRecords;
+
+        private StageOutput(final @NotNull MqttToKinesisOutput delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public @NotNull OutboundKinesisRecordBuilder newOutboundKinesisRecordBuilder() {
+            return delegate.newOutboundKinesisRecordBuilder();
+        }
+
+        @Override
+        public @NotNull OutboundKinesisRecordFanOutBuilder newOutboundKinesisRecordFanOutBuilder() {
+            return delegate.newOutboundKinesisRecordFanOutBuilder();
+        }
+
+        @Override
+        public @NotNull KinesisJsonWriter newKinesisJsonWriter() {
+            return delegate.newKinesisJsonWriter();
+        }
+
+        @Override
+        public void setOutboundKinesisRecords(
+                final @NotNull List<@NotNull OutboundKinesisRecord> outboundKinesisRecords) {
+            Objects.requireNonNull(outboundKinesisRecords, "outboundKinesisRecords must not be null");
+            for (final OutboundKinesisRecord outboundKinesisRecord : outboundKinesisRecords) {
+                Objects.requireNonNull(outboundKinesisRecord, "outboundKinesisRecords must not contain null elements");
+            }
+            this.outboundKinesisRecords = outboundKinesisRecords;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+/**
+ * Declares on which kind of threads the "HiveMQ Enterprise Extension for Amazon Kinesis" executes the transform
+ * method of a {@link MqttToKinesisTransformer} or a {@link KinesisToMqttTransformer}.
+ *
+ * @since 4.54.0
+ */
+public enum TransformerExecutionMode {
+
+    /**
+     * The transformer is executed on the bounded pool of platform threads of the extension. This is the right choice
+     * for transformers that do not block.
+     *
+     * @since 4.54.0
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * The transformer is executed on virtual threads, so blocking calls (for example file or socket reads) in the
+     * transformer do not occupy a platform thread while they wait.
+     * <p>
+     * Virtual threads require HiveMQ to run on Java 21 or higher. On older Java versions the transformer is executed
+     * on platform threads as if {@link #PLATFORM_THREADS} was declared.
+     * <p>
+     * Before Java 24, blocking while holding a monitor ({@code synchronized}) pins the virtual thread to its carrier
+     * thread. Prefer {@link java.util.concurrent.locks.ReentrantLock} in such a transformer instead.
+     *
+     * @since 4.54.0
+     */
+    VIRTUAL_THREADS
+}
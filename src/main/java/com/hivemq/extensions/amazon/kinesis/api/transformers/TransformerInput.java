@@ -40,6 +40,15 @@ public interface TransformerInput {
      */
     @NotNull MetricRegistry getMetricRegistry();
 
+    /**
+     * Get the {@code id} of the route this transformer or handler is configured for. Use it to scope the names of own
+     * metrics to the route, so the same transformer class can be used in several routes.
+     *
+     * @return The {@code id} of the {@code <mqtt-to-kinesis-route>} or {@code <kinesis-to-mqtt-route>}.
+     * @since 4.54.0
+     */
+    @NotNull String getRouteId();
+
     /**
      * @return The {@link CustomSettings} this transformer is associated with.
      * @since 4.14.0
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.envelope;
+
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.packets.general.Qos;
+import com.hivemq.extension.sdk.api.packets.general.UserProperties;
+import com.hivemq.extension.sdk.api.packets.general.UserProperty;
+import com.hivemq.extension.sdk.api.packets.publish.PayloadFormatIndicator;
+import com.hivemq.extension.sdk.api.packets.publish.PublishPacket;
+import com.hivemq.extension.sdk.api.services.builder.PublishBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.builders.OutboundKinesisRecordBuilder;
+import com.hivemq.extensions.amazon.kinesis.api.model.InboundKinesisRecord;
+import com.hivemq.extensions.amazon.kinesis.api.transformers.KinesisToMqttOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MqttEnvelopeCodecTest {
+
+    private final @NotNull PublishBuilder publishBuilder = mock(PublishBuilder.class, RETURNS_SELF);
+    private final @NotNull KinesisToMqttOutput kinesisToMqttOutput = mock(KinesisToMqttOutput.class);
+    private final @NotNull InboundKinesisRecord inboundKinesisRecord = mock(InboundKinesisRecord.class);
+
+    @BeforeEach
+    void setUp() {
+        when(kinesisToMqttOutput.newPublishBuilder(any(), anyInt(), anyInt())).thenReturn(publishBuilder);
+    }
+
+    @Test
+    void decode_whenAllPropertiesAreEncoded_thenAllPropertiesAreSet() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(fullPublishPacket());
+
+        final ByteBuffer payload = decode(envelope);
+
+        assertEquals(ByteBuffer.wrap("payload".getBytes(StandardCharsets.UTF_8)), payload);
+        verify(publishBuilder).topic("topic/ä");
+        verify(publishBuilder).qos(Qos.EXACTLY_ONCE);
+        verify(publishBuilder).retain(true);
+        verify(publishBuilder).payloadFormatIndicator(PayloadFormatIndicator.UTF_8);
+        verify(publishBuilder).messageExpiryInterval(60L);
+        verify(publishBuilder).responseTopic("response");
+        verify(publishBuilder).correlationData(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        verify(publishBuilder).contentType("text/plain");
+        verify(publishBuilder).userProperty("name1", "value1");
+        verify(publishBuilder).userProperty("name2", "value2");
+    }
+
+    @Test
+    void decode_whenOnlyRequiredPropertiesAreEncoded_thenOptionalPropertiesAreNotSet() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(minimalPublishPacket());
+
+        final ByteBuffer payload = decode(envelope);
+
+        assertEquals(0, payload.remaining());
+        verify(publishBuilder).topic("topic");
+        verify(publishBuilder).qos(Qos.AT_MOST_ONCE);
+        verify(publishBuilder).retain(false);
+        verify(publishBuilder, never()).payloadFormatIndicator(any());
+        verify(publishBuilder, never()).messageExpiryInterval(anyLong());
+        verify(publishBuilder, never()).responseTopic(anyString());
+        verify(publishBuilder, never()).correlationData(any());
+        verify(publishBuilder, never()).contentType(anyString());
+        verify(publishBuilder, never()).userProperty(anyString(), anyString());
+    }
+
+    @Test
+    void decode_whenRecordDataStartsAtNonZeroPosition_thenPayloadOffsetIsRelativeToRecordData() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(fullPublishPacket());
+        final ByteBuffer data = ByteBuffer.allocate(envelope.remaining() + 5);
+        data.position(5);
+        data.put(envelope.duplicate());
+        data.position(5);
+
+        final ByteBuffer payload = decode(data);
+
+        assertEquals(ByteBuffer.wrap("payload".getBytes(StandardCharsets.UTF_8)), payload);
+    }
+
+    @Test
+    void decode_whenEnvelopeIsTruncated_thenThrows() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(fullPublishPacket());
+        final int headerLength = envelope.remaining() - "payload".length();
+        for (int length = 0; length < headerLength; length++) {
+            final ByteBuffer truncated = envelope.duplicate().limit(length);
+            when(inboundKinesisRecord.getData()).thenReturn(truncated.asReadOnlyBuffer());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> MqttEnvelopeCodec.decode(inboundKinesisRecord, kinesisToMqttOutput),
+                    "length " + length);
+        }
+    }
+
+    @Test
+    void decode_whenVersionIsUnsupported_thenThrows() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(minimalPublishPacket());
+        envelope.put(0, (byte) 2);
+        when(inboundKinesisRecord.getData()).thenReturn(envelope.asReadOnlyBuffer());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MqttEnvelopeCodec.decode(inboundKinesisRecord, kinesisToMqttOutput));
+    }
+
+    @Test
+    void decode_whenQosIsInvalid_thenThrows() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(minimalPublishPacket());
+        envelope.put(1, (byte) 0b11);
+        when(inboundKinesisRecord.getData()).thenReturn(envelope.asReadOnlyBuffer());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MqttEnvelopeCodec.decode(inboundKinesisRecord, kinesisToMqttOutput));
+    }
+
+    @Test
+    void decode_whenStringIsNotValidUtf8_thenThrows() {
+        final ByteBuffer envelope = MqttEnvelopeCodec.encode(minimalPublishPacket());
+        // the topic starts after version, flags and its 2 byte length
+        envelope.put(4, (byte) 0xFF);
+        when(inboundKinesisRecord.getData()).thenReturn(envelope.asReadOnlyBuffer());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MqttEnvelopeCodec.decode(inboundKinesisRecord, kinesisToMqttOutput));
+    }
+
+    @Test
+    void encode_whenBuilderIsGiven_thenEnvelopeIsHandedOverWithoutCopy() {
+        final OutboundKinesisRecordBuilder outboundKinesisRecordBuilder =
+                mock(OutboundKinesisRecordBuilder.class, RETURNS_SELF);
+
+        final ByteBuffer expectedEnvelope = MqttEnvelopeCodec.encode(fullPublishPacket());
+
+        MqttEnvelopeCodec.encode(fullPublishPacket(), outboundKinesisRecordBuilder);
+
+        verify(outboundKinesisRecordBuilder).wrapData(expectedEnvelope);
+        verify(outboundKinesisRecordBuilder, never()).data(any(ByteBuffer.class));
+    }
+
+    @Test
+    void encode_whenPayloadIsEncoded_thenPacketBuffersAreNotConsumed() {
+        final PublishPacket publishPacket = fullPublishPacket();
+        final ByteBuffer payload = publishPacket.getPayload().orElseThrow();
+
+        MqttEnvelopeCodec.encode(publishPacket);
+
+        assertEquals(0, payload.position());
+    }
+
+    private @NotNull ByteBuffer decode(final @NotNull ByteBuffer data) {
+        when(inboundKinesisRecord.getData()).thenReturn(data.asReadOnlyBuffer());
+
+        assertEquals(publishBuilder, MqttEnvelopeCodec.decode(inboundKinesisRecord, kinesisToMqttOutput));
+
+        final ArgumentCaptor<Integer> offset = ArgumentCaptor.forClass(Integer.class);
+        final ArgumentCaptor<Integer> length = ArgumentCaptor.forClass(Integer.class);
+        verify(kinesisToMqttOutput).newPublishBuilder(any(), offset.capture(), length.capture());
+        final ByteBuffer payload = data.duplicate();
+        payload.position(data.position() + offset.getValue());
+        payload.limit(payload.position() + length.getValue());
+        return payload;
+    }
+
+    private static @NotNull PublishPacket fullPublishPacket() {
+        final PublishPacket publishPacket = mock(PublishPacket.class);
+        when(publishPacket.getTopic()).thenReturn("topic/ä");
+        when(publishPacket.getQos()).thenReturn(Qos.EXACTLY_ONCE);
+        when(publishPacket.getRetain()).thenReturn(true);
+        when(publishPacket.getPayloadFormatIndicator()).thenReturn(Optional.of(PayloadFormatIndicator.UTF_8));
+        when(publishPacket.getMessageExpiryInterval()).thenReturn(Optional.of(60L));
+        when(publishPacket.getResponseTopic()).thenReturn(Optional.of("response"));
+        when(publishPacket.getCorrelationData()).thenReturn(Optional.of(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        when(publishPacket.getContentType()).thenReturn(Optional.of("text/plain"));
+        final List<UserProperty> userPropertyList =
+                List.of(userProperty("name1", "value1"), userProperty("name2", "value2"));
+        final UserProperties userProperties = mock(UserProperties.class);
+        when(userProperties.asList()).thenReturn(userPropertyList);
+        when(publishPacket.getUserProperties()).thenReturn(userProperties);
+        final ByteBuffer payload = ByteBuffer.wrap("payload".getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        when(publishPacket.getPayload()).thenReturn(Optional.of(payload));
+        return publishPacket;
+    }
+
+    private static @NotNull PublishPacket minimalPublishPacket() {
+        final PublishPacket publishPacket = mock(PublishPacket.class);
+        when(publishPacket.getTopic()).thenReturn("topic");
+        when(publishPacket.getQos()).thenReturn(Qos.AT_MOST_ONCE);
+        final UserProperties userProperties = mock(UserProperties.class);
+        when(userProperties.asList()).thenReturn(List.of());
+        when(publishPacket.getUserProperties()).thenReturn(userProperties);
+        return publishPacket;
+    }
+
+    private static @NotNull UserProperty userProperty(final @NotNull String name, final @NotNull String value) {
+        final UserProperty userProperty = mock(UserProperty.class);
+        when(userProperty.getName()).thenReturn(name);
+        when(userProperty.getValue()).thenReturn(value);
+        return userProperty;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extension.sdk.api.services.publish.Publish;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KinesisToMqttTransformerChainTest {
+
+    private static final @NotNull String METRIC_PREFIX =
+            "com.hivemq.extensions.amazon-kinesis.customizations.chain.kinesis-to-mqtt.route-1.test.stage.";
+
+    private final @NotNull MetricRegistry metricRegistry = new MetricRegistry();
+    private final @NotNull KinesisToMqttInitInput initInput = mock(KinesisToMqttInitInput.class);
+    private final @NotNull KinesisToMqttInput input = mock(KinesisToMqttInput.class);
+    private final @NotNull KinesisToMqttOutput output = mock(KinesisToMqttOutput.class);
+    private final @NotNull Publish publish1 = mock(Publish.class);
+    private final @NotNull Publish publish2 = mock(Publish.class);
+
+    @BeforeEach
+    void setUp() {
+        when(initInput.getMetricRegistry()).thenReturn(metricRegistry);
+        when(initInput.getRouteId()).thenReturn("route-1");
+    }
+
+    @Test
+    void transform_whenChainStageFollows_thenItReceivesAndReplacesPreviousPublishes() {
+        final List<List<Publish>> seen = new ArrayList<>();
+        final KinesisToMqttChainStage enricher = (input, previousPublishes, output) -> {
+            seen.add(previousPublishes);
+            output.setPublishes(List.of(publish1, publish2));
+        };
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test",
+                (input, output) -> output.setPublishes(List.of(publish1)),
+                enricher);
+        chain.init(initInput);
+
+        chain.transformKinesisToMqtt(input, output);
+
+        assertEquals(List.of(List.of(publish1)), seen);
+        verify(output).setPublishes(List.of(publish1, publish2));
+    }
+
+    @Test
+    void transform_whenStageDoesNotSetPublishes_thenRecordIsIgnoredAndLaterStagesAreNotCalled() {
+        final KinesisToMqttTransformer lastStage = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test",
+                (input, output) -> output.setPublishes(List.of(publish1)),
+                (input, output) -> {
+                },
+                lastStage);
+        chain.init(initInput);
+
+        chain.transformKinesisToMqtt(input, output);
+
+        verify(lastStage, never()).transformKinesisToMqtt(any(), any());
+        verify(output, never()).setPublishes(any());
+    }
+
+    @Test
+    void transform_whenStageSetsEmptyList_thenRecordIsIgnoredAndLaterStagesAreNotCalled() {
+        final KinesisToMqttTransformer lastStage = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test",
+                (input, output) -> output.setPublishes(List.of()),
+                lastStage);
+        chain.init(initInput);
+
+        chain.transformKinesisToMqtt(input, output);
+
+        verify(lastStage, never()).transformKinesisToMqtt(any(), any());
+        verify(output, never()).setPublishes(any());
+    }
+
+    @Test
+    void transform_whenChainStageIsUsedAlone_thenItReceivesNoPreviousPublishes() {
+        final List<List<Publish>> seen = new ArrayList<>();
+        final KinesisToMqttChainStage stage = (input, previousPublishes, output) -> seen.add(previousPublishes);
+
+        stage.transformKinesisToMqtt(input, output);
+
+        assertEquals(List.of(List.of()), seen);
+    }
+
+    @Test
+    void transform_whenStageSetsNullElement_thenThrows() {
+        final List<Publish> publishes = new ArrayList<>();
+        publishes.add(null);
+        final KinesisToMqttTransformerChain chain =
+                new KinesisToMqttTransformerChain("test", (input, output) -> output.setPublishes(publishes));
+        chain.init(initInput);
+
+        assertThrows(NullPointerException.class, () -> chain.transformKinesisToMqtt(input, output));
+    }
+
+    @Test
+    void init_whenCalled_thenStagesAreInitializedAndRouteScopedTimersAreRegistered() {
+        final KinesisToMqttTransformer stage = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test",
+                (input, output) -> output.setPublishes(List.of(publish1)),
+                stage);
+
+        chain.init(initInput);
+        chain.transformKinesisToMqtt(input, output);
+
+        verify(stage).init(initInput);
+        assertEquals(1, metricRegistry.timer(METRIC_PREFIX + "0.time").getCount());
+        assertEquals(1, metricRegistry.timer(METRIC_PREFIX + "1.time").getCount());
+    }
+
+    @Test
+    void close_whenCalled_thenStagesAreClosedAndTimersAreRemoved() {
+        final KinesisToMqttTransformer stage1 = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformer stage2 = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test", stage1, stage2);
+        chain.init(initInput);
+
+        chain.close();
+
+        final InOrder order = inOrder(stage1, stage2);
+        order.verify(stage1).close();
+        order.verify(stage2).close();
+        assertTrue(metricRegistry.getMetrics().isEmpty());
+    }
+
+    @Test
+    void init_whenSameStageIsUsedTwice_thenItIsInitializedTwice() {
+        final KinesisToMqttTransformer stage = mock(KinesisToMqttTransformer.class);
+        final KinesisToMqttTransformerChain chain = new KinesisToMqttTransformerChain("test", stage, stage);
+
+        chain.init(initInput);
+
+        verify(stage, times(2)).init(initInput);
+    }
+
+    @Test
+    void getExecutionMode_whenAnyStageUsesVirtualThreads_thenVirtualThreads() {
+        final KinesisToMqttTransformer blockingStage = new KinesisToMqttTransformer() {
+            @Override
+            public @NotNull TransformerExecutionMode getExecutionMode() {
+                return TransformerExecutionMode.VIRTUAL_THREADS;
+            }
+
+            @Override
+            public void transformKinesisToMqtt(
+                    final @NotNull KinesisToMqttInput input, final @NotNull KinesisToMqttOutput output) {
+            }
+        };
+        final KinesisToMqttTransformer stage = (input, output) -> {
+        };
+
+        assertEquals(TransformerExecutionMode.PLATFORM_THREADS,
+                new KinesisToMqttTransformerChain("test", stage).getExecutionMode());
+        assertEquals(TransformerExecutionMode.VIRTUAL_THREADS,
+                new KinesisToMqttTransformerChain("test", stage, blockingStage).getExecutionMode());
+    }
+
+    @Test
+    void constructor_whenNoStages_thenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new KinesisToMqttTransformerChain("test"));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023-present HiveMQ GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.extensions.amazon.kinesis.api.transformers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.hivemq.extension.sdk.api.annotations.NotNull;
+import com.hivemq.extensions.amazon.kinesis.api.model.OutboundKinesisRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MqttToKinesisTransformerChainTest {
+
+    private static final @NotNull String METRIC_PREFIX =
+            "com.hivemq.extensions.amazon-kinesis.customizations.chain.mqtt-to-kinesis.route-1.test.stage.";
+
+    private final @NotNull MetricRegistry metricRegistry = new MetricRegistry();
+    private final @NotNull MqttToKinesisInitInput initInput = mock(MqttToKinesisInitInput.class);
+    private final @NotNull MqttToKinesisInput input = mock(MqttToKinesisInput.class);
+    private final @NotNull MqttToKinesisOutput output = mock(MqttToKinesisOutput.class);
+    private final @NotNull OutboundKinesisRecord record1 = mock(OutboundKinesisRecord.class);
+    private final @NotNull OutboundKinesisRecord record2 = mock(OutboundKinesisRecord.class);
+
+    @BeforeEach
+    void setUp() {
+        when(initInput.getMetricRegistry()).thenReturn(metricRegistry);
+        when(initInput.getRouteId()).thenReturn("route-1");
+    }
+
+    @Test
+    void transform_whenChainStageFollows_thenItReceivesAndReplacesPreviousRecords() {
+        final List<List<OutboundKinesisRecord>> seen = new ArrayList<>();
+        final MqttToKinesisChainStage enricher = (input, previousRecords, output) -> {
+            seen.add(previousRecords);
+            output.setOutboundKinesisRecords(List.of(record1, record2));
+        };
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test",
+                (input, output) -> output.setOutboundKinesisRecords(List.of(record1)),
+                enricher);
+        chain.init(initInput);
+
+        chain.transformMqttToKinesis(input, output);
+
+        assertEquals(List.of(List.of(record1)), seen);
+        verify(output).setOutboundKinesisRecords(List.of(record1, record2));
+    }
+
+    @Test
+    void transform_whenStageDoesNotSetRecords_thenPublishIsDismissedAndLaterStagesAreNotCalled() {
+        final MqttToKinesisTransformer lastStage = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test",
+                (input, output) -> output.setOutboundKinesisRecords(List.of(record1)),
+                (input, output) -> {
+                },
+                lastStage);
+        chain.init(initInput);
+
+        chain.transformMqttToKinesis(input, output);
+
+        verify(lastStage, never()).transformMqttToKinesis(any(), any());
+        verify(output, never()).setOutboundKinesisRecords(any());
+    }
+
+    @Test
+    void transform_whenStageSetsEmptyList_thenPublishIsDismissedAndLaterStagesAreNotCalled() {
+        final MqttToKinesisTransformer lastStage = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test",
+                (input, output) -> output.setOutboundKinesisRecords(List.of()),
+                lastStage);
+        chain.init(initInput);
+
+        chain.transformMqttToKinesis(input, output);
+
+        verify(lastStage, never()).transformMqttToKinesis(any(), any());
+        verify(output, never()).setOutboundKinesisRecords(any());
+    }
+
+    @Test
+    void transform_whenChainStageIsUsedAlone_thenItReceivesNoPreviousRecords() {
+        final List<List<OutboundKinesisRecord>> seen = new ArrayList<>();
+        final MqttToKinesisChainStage stage = (input, previousRecords, output) -> seen.add(previousRecords);
+
+        stage.transformMqttToKinesis(input, output);
+
+        assertEquals(List.of(List.of()), seen);
+    }
+
+    @Test
+    void transform_whenStageSetsNullElement_thenThrows() {
+        final List<OutboundKinesisRecord> records = new ArrayList<>();
+        records.add(null);
+        final MqttToKinesisTransformerChain chain =
+                new MqttToKinesisTransformerChain("test", (input, output) -> output.setOutboundKinesisRecords(records));
+        chain.init(initInput);
+
+        assertThrows(NullPointerException.class, () -> chain.transformMqttToKinesis(input, output));
+    }
+
+    @Test
+    void init_whenCalled_thenStagesAreInitializedAndRouteScopedTimersAreRegistered() {
+        final MqttToKinesisTransformer stage = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test",
+                (input, output) -> output.setOutboundKinesisRecords(List.of(record1)),
+                stage);
+
+        chain.init(initInput);
+        chain.transformMqttToKinesis(input, output);
+
+        verify(stage).init(initInput);
+        assertEquals(1, metricRegistry.timer(METRIC_PREFIX + "0.time").getCount());
+        assertEquals(1, metricRegistry.timer(METRIC_PREFIX + "1.time").getCount());
+    }
+
+    @Test
+    void close_whenCalled_thenStagesAreClosedAndTimersAreRemoved() {
+        final MqttToKinesisTransformer stage1 = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformer stage2 = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test", stage1, stage2);
+        chain.init(initInput);
+
+        chain.close();
+
+        final InOrder order = inOrder(stage1, stage2);
+        order.verify(stage1).close();
+        order.verify(stage2).close();
+        assertTrue(metricRegistry.getMetrics().isEmpty());
+    }
+
+    @Test
+    void init_whenSameStageIsUsedTwice_thenItIsInitializedTwice() {
+        final MqttToKinesisTransformer stage = mock(MqttToKinesisTransformer.class);
+        final MqttToKinesisTransformerChain chain = new MqttToKinesisTransformerChain("test", stage, stage);
+
+        chain.init(initInput);
+
+        verify(stage, times(2)).init(initInput);
+    }
+
+    @Test
+    void getExecutionMode_whenAnyStageUsesVirtualThreads_thenVirtualThreads() {
+        final MqttToKinesisTransformer blockingStage = new MqttToKinesisTransformer() {
+            @Override
+            public @NotNull TransformerExecutionMode getExecutionMode() {
+                return TransformerExecutionMode.VIRTUAL_THREADS;
+            }
+
+            @Override
+            public void transformMqttToKinesis(
+                    final @NotNull MqttToKinesisInput input, final @NotNull MqttToKinesisOutput output) {
+            }
+        };
+        final MqttToKinesisTransformer stage = (input, output) -> {
+        };
+
+        assertEquals(TransformerExecutionMode.PLATFORM_THREADS,
+                new MqttToKinesisTransformerChain("test", stage).getExecutionMode());
+        assertEquals(TransformerExecutionMode.VIRTUAL_THREADS,
+                new MqttToKinesisTransformerChain("test", stage, blockingStage).getExecutionMode());
+    }
+
+    @Test
+    void constructor_whenNoStages_thenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new MqttToKinesisTransformerChain("test"));
+    }
+}